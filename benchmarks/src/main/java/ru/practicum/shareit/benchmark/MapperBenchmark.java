@@ -0,0 +1,144 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ItemMapper itemMapper;
+    private BookingMapper bookingMapper;
+    private CommentMapper commentMapper;
+
+    private Item item;
+    private List<CommentDto> commentDtos;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+    private List<ItemBookingSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        itemMapper = new ItemMapper();
+        bookingMapper = new BookingMapper(itemMapper, new UserMapper());
+        commentMapper = new CommentMapper();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            users.add(User.builder()
+                    .id(id)
+                    .name("User" + id)
+                    .email("user" + id + "@email.com")
+                    .build());
+        }
+        ItemRequest request = ItemRequest.builder()
+                .id(1L)
+                .description("Request")
+                .created(now)
+                .requestor(users.get(0))
+                .build();
+        item = Item.builder()
+                .id(1L)
+                .name("Item")
+                .description("Description of a frequently booked item")
+                .available(true)
+                .owner(users.get(0))
+                .request(request)
+                .build();
+
+        bookings = new ArrayList<>();
+        comments = new ArrayList<>();
+        summaries = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            User booker = users.get(random.nextInt(users.size()));
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 30) - 24 * 15);
+            bookings.add(Booking.builder()
+                    .id(id)
+                    .item(item)
+                    .booker(booker)
+                    .startTime(start)
+                    .endTime(start.plusHours(1 + random.nextInt(48)))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            comments.add(Comment.builder()
+                    .id(id)
+                    .text("Comment " + id)
+                    .item(item)
+                    .author(booker)
+                    .created(now.minusMinutes(id))
+                    .build());
+            summaries.add(ItemBookingSummary.builder()
+                    .itemId(id)
+                    .lastBookingId(id)
+                    .lastBookerId(booker.getId())
+                    .lastStartTime(now.minusDays(1))
+                    .nextBookingId(random.nextBoolean() ? id + size : null)
+                    .nextBookerId(booker.getId())
+                    .nextStartTime(now.plusDays(1))
+                    .build());
+        }
+        commentDtos = comments.stream()
+                .limit(10)
+                .map(commentMapper::getCommentDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public ItemDto itemMapperGetItemDto() {
+        return itemMapper.getItemDto(item, null, null, commentDtos, (long) size);
+    }
+
+    @Benchmark
+    public List<BookingDtoOutput> bookingMapperCreateDtoOutputList() {
+        return bookingMapper.createDtoOutputList(bookings);
+    }
+
+    @Benchmark
+    public List<CommentDto> commentMapperGetCommentDto() {
+        return comments.stream()
+                .map(commentMapper::getCommentDto)
+                .collect(Collectors.toList());
+    }
+
+    // Выбор последнего и следующего бронирования для страницы вещей владельца, как в getItems.
+    @Benchmark
+    public void lastAndNextBookingSelection(Blackhole blackhole) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ItemBookingSummary summary : summaries) {
+            blackhole.consume(summary.isStale(now));
+            blackhole.consume(bookingMapper.createLastBookingItemDto(summary));
+            blackhole.consume(bookingMapper.createNextBookingItemDto(summary));
+        }
+    }
+}
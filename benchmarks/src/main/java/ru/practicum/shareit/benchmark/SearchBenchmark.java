@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.datagen.DataGenerator;
+import ru.practicum.shareit.datagen.DataGeneratorSettings;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Инвертированный индекс против LIKE-запроса на данных DataGenerator: частое слово, запрос из двух символов,
+// редкий номер модели и запрос без совпадений. Каждое сочетание параметров идёт в своём форке со своей базой.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    private static final String URL = "jdbc:h2:mem:search-benchmark;DB_CLOSE_DELAY=-1";
+    private static final String USERNAME = "test";
+    private static final String PASSWORD = "test";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"index", "sql"})
+    private String engine;
+
+    @Param({"drill", "ka", "#4242", "zebra"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ItemSearchEngine itemSearchEngine;
+    private String secondPage;
+
+    // Данные пишутся до старта контекста, чтобы индекс собрался уже по ним.
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Flyway.configure()
+                .dataSource(URL, USERNAME, PASSWORD)
+                .load()
+                .migrate();
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            new DataGenerator(DataGeneratorSettings.builder()
+                    .users(2_000)
+                    .owners(200)
+                    .items(50_000)
+                    .requests(500)
+                    .bookings(5_000)
+                    .build())
+                    .generate(connection);
+        }
+
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=" + URL,
+                        "--shareit.search.engine=" + engine,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        itemSearchEngine = context.getBean(ItemSearchEngine.class);
+        secondPage = itemSearchEngine.search(query, null, 0, PAGE_SIZE).getNext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<Long> firstPage() {
+        return itemSearchEngine.search(query, null, 0, PAGE_SIZE);
+    }
+
+    // Для запросов, у которых меньше страницы совпадений, курсора нет, и измеряется та же первая страница.
+    @Benchmark
+    public CursorPage<Long> nextPage() {
+        return itemSearchEngine.search(query, secondPage, 0, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryCalculator;
+import ru.practicum.shareit.datagen.DataGenerator;
+import ru.practicum.shareit.datagen.DataGeneratorSettings;
+import ru.practicum.shareit.datagen.GeneratedDataset;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dto.ItemRequestDtoForRequestor;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Сервисы целиком, вместе с транзакциями и запросами к H2, на данных DataGenerator с фиксированным seed;
+// запросы идут от самого крупного владельца, самого активного арендатора и к самой популярной вещи.
+// Глубокая страница бронирований владельца читается и через смещение, и через курсор с той же позиции.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final String URL = "jdbc:h2:mem:service-benchmark;DB_CLOSE_DELAY=-1";
+    private static final String USERNAME = "test";
+    private static final String PASSWORD = "test";
+    private static final int PAGE_SIZE = 20;
+    // При этих объёмах пользователей, владельцев и вещей самому крупному владельцу достаётся около 13 %
+    // бронирований; точное число печатается при подготовке данных.
+    private static final int BOOKINGS_PER_OWNER_BOOKING = 8;
+
+    // Примерное число бронирований у самого крупного владельца.
+    @Param({"10000", "100000"})
+    private int ownerBookings;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+    private ItemBookingSummaryCalculator itemBookingSummaryCalculator;
+
+    private long owner;
+    private long booker;
+    private long item;
+    private List<Long> ownerItemIds;
+    private int deepOffset;
+    private String deepCursor;
+
+    // Данные пишутся до старта контекста, чтобы индекс поиска и справочник пользователей собрались уже по ним.
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Flyway.configure()
+                .dataSource(URL, USERNAME, PASSWORD)
+                .load()
+                .migrate();
+        GeneratedDataset dataset;
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            // Сервисы делят бронирования на текущие, прошлые и будущие по текущему времени, поэтому данные
+            // отсчитываются от него, а не от фиксированного baseTime.
+            dataset = new DataGenerator(DataGeneratorSettings.builder()
+                    .baseTime(LocalDateTime.now())
+                    .users(2_000)
+                    .owners(200)
+                    .items(5_000)
+                    .requests(500)
+                    .bookings(ownerBookings * BOOKINGS_PER_OWNER_BOOKING)
+                    .build())
+                    .generate(connection);
+        }
+        owner = dataset.getTopOwnerId();
+        booker = dataset.getTopBookerId();
+        item = dataset.getHotItemId();
+        System.out.println("Бронирований у владельца " + owner + ": " + dataset.getTopOwnerBookings());
+
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=" + URL,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+        itemBookingSummaryCalculator = context.getBean(ItemBookingSummaryCalculator.class);
+        ownerItemIds = itemService.getItems(owner, 0, PAGE_SIZE).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        itemService.getItemById(owner, item);
+        // Середина истории владельца, выровненная по размеру страницы; курсор указывает на ту же позицию.
+        deepOffset = (int) (dataset.getTopOwnerBookings() / 2 / PAGE_SIZE * PAGE_SIZE);
+        deepCursor = bookingService.getAllOwnerItemBookings(owner, "ALL", null, deepOffset - PAGE_SIZE, PAGE_SIZE)
+                .getNext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> getItems() {
+        return itemService.getItems(owner, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ItemDto getItemByIdCached() {
+        return itemService.getItemById(owner, item);
+    }
+
+    @Benchmark
+    public CursorPage<ItemDto> getItemByText() {
+        return itemService.getItemByText(booker, "drill", null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<BookingDtoOutput> getAllBookerBookings() {
+        return bookingService.getAllBookerBookings(booker, "ALL", null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<BookingDtoOutput> getAllOwnerItemBookings() {
+        return bookingService.getAllOwnerItemBookings(owner, "ALL", null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<BookingDtoOutput> getAllOwnerItemBookingsDeepOffset() {
+        return bookingService.getAllOwnerItemBookings(owner, "ALL", null, deepOffset, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<BookingDtoOutput> getAllOwnerItemBookingsDeepCursor() {
+        return bookingService.getAllOwnerItemBookings(owner, "ALL", deepCursor, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemRequestDtoForRequestor> getRequestsByPage() {
+        return itemRequestService.getRequestsByPage(owner, 0, PAGE_SIZE);
+    }
+
+    // Пересчёт последнего и следующего бронирования для страницы вещей владельца, как при чтении устаревших сводок.
+    @Benchmark
+    public Map<Long, ItemBookingSummary> calculateBookingSummaries() {
+        return itemBookingSummaryCalculator.calculate(ownerItemIds, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.datagen.DataGenerator;
+import ru.practicum.shareit.datagen.DataGeneratorSettings;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Перезапуск сервера на заполненной базе: миграции уже применены, и время уходит в основном на загрузку
+// индекса поиска и справочника пользователей в @PostConstruct. Это время растёт линейно с числом вещей
+// и пользователей. Каждая итерация поднимает и закрывает контекст.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    private static final String URL = "jdbc:h2:mem:startup-benchmark;DB_CLOSE_DELAY=-1";
+    private static final String USERNAME = "test";
+    private static final String PASSWORD = "test";
+
+    @Param({"20000", "200000"})
+    private int items;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Flyway.configure()
+                .dataSource(URL, USERNAME, PASSWORD)
+                .load()
+                .migrate();
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            new DataGenerator(DataGeneratorSettings.builder()
+                    .users(items / 2)
+                    .owners(items / 20)
+                    .items(items)
+                    .requests(items / 10)
+                    .bookings(items)
+                    .build())
+                    .generate(connection);
+        }
+    }
+
+    @Benchmark
+    public void restart() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=" + URL,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        context.close();
+    }
+}
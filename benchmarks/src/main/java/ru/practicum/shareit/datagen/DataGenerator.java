@@ -0,0 +1,363 @@
+package ru.practicum.shareit.datagen;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет пустую схему (после миграций Flyway) пользователями, запросами, вещами, бронированиями,
+ * отзывами и сводками бронирований. Владельцы, вещи и арендаторы выбираются по закону Ципфа,
+ * поэтому у нескольких владельцев оказывается большая часть вещей, а у горячих вещей — длинная история бронирований.
+ * Даты отсчитываются от {@link DataGeneratorSettings#getBaseTime()}, а не от текущего времени,
+ * поэтому при одинаковых настройках, seed и времени отсчёта результат всегда один и тот же.
+ */
+@RequiredArgsConstructor
+public class DataGenerator {
+    private static final String[] ADJECTIVES = {"Cordless", "Heavy", "Compact", "Folding", "Electric",
+            "Vintage", "Portable", "Professional", "Kids", "Waterproof"};
+    private static final String[] NOUNS = {"Drill", "Ladder", "Tent", "Bike", "Camera", "Projector", "Saw",
+            "Kayak", "Guitar", "Vacuum", "Grill", "Scooter"};
+    private static final String[] REVIEWS = {"Worked well", "Exactly as described", "A bit worn but fine",
+            "Owner was very helpful", "Would rent again", "Battery died quickly"};
+    private static final long HISTORY_MINUTES = 2L * 365 * 24 * 60;
+    private static final double CURRENT_BOOKING_RATIO = 0.1;
+    private static final List<String> TABLES = List.of("users", "requests", "items", "bookings", "comments");
+
+    private final DataGeneratorSettings settings;
+
+    // Каждый пакет фиксируется сразу (см. BatchWriter): одна транзакция на десятки миллионов строк держала бы
+    // журнал и блокировки до конца генерации. Поэтому при ошибке в схеме остаются уже записанные пакеты,
+    // и перед повторным запуском таблицы нужно очистить — проверка на пустую схему это потребует.
+    public GeneratedDataset generate(Connection connection) throws SQLException {
+        settings.validate();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            requireEmpty(connection);
+            GeneratedDataset dataset = new Run(connection, new Random(settings.getSeed()), settings.getBaseTime())
+                    .generate();
+            restartIdentities(connection, dataset);
+            connection.commit();
+            return dataset;
+        } catch (SQLException | RuntimeException e) {
+            // Откатывается только незафиксированный пакет; записанные ранее строки остаются.
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Идентификаторы пишутся явно и начинаются с 1, поэтому дописать данные в непустую схему нельзя.
+    private void requireEmpty(Connection connection) throws SQLException {
+        for (String table : TABLES) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + ")")) {
+                rs.next();
+                if (rs.getBoolean(1)) {
+                    throw new IllegalStateException("Таблица " + table + " не пуста: генерация пишет id с 1, "
+                            + "очистите таблицы (в том числе после прерванного запуска) и повторите.");
+                }
+            }
+        }
+    }
+
+    // Идентификаторы записаны явно, поэтому счётчики identity сдвигаются за последние выданные значения.
+    private void restartIdentities(Connection connection, GeneratedDataset dataset) throws SQLException {
+        long[] counts = {dataset.getUsers(), dataset.getRequests(), dataset.getItems(),
+                dataset.getBookings(), dataset.getComments()};
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i < TABLES.size(); i++) {
+                statement.execute("ALTER TABLE " + TABLES.get(i) + " ALTER COLUMN id RESTART WITH " + (counts[i] + 1));
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private class Run {
+        private final Connection connection;
+        private final Random random;
+        private final LocalDateTime now;
+
+        private int[] itemOwners;
+        private int[] itemsPerOwner;
+        private int[] bookingsPerUser;
+        private long commentCount;
+
+        GeneratedDataset generate() throws SQLException {
+            insertUsers();
+            insertRequests();
+            insertItems();
+            int[] bookingsPerItem = distributeBookings();
+            insertBookings(bookingsPerItem);
+            int topOwner = indexOfMax(itemsPerOwner) + 1;
+
+            return GeneratedDataset.builder()
+                    .users(settings.getUsers())
+                    .requests(settings.getRequests())
+                    .items(settings.getItems())
+                    .bookings(settings.getBookings())
+                    .comments(commentCount)
+                    .topOwnerId(topOwner)
+                    .topOwnerBookings(bookingsOf(topOwner, bookingsPerItem))
+                    .hotItemId(indexOfMax(bookingsPerItem) + 1)
+                    .topBookerId(indexOfMax(bookingsPerUser) + 1)
+                    .build();
+        }
+
+        private long bookingsOf(int owner, int[] bookingsPerItem) {
+            long count = 0;
+            for (int i = 0; i < itemOwners.length; i++) {
+                if (itemOwners[i] == owner) {
+                    count += bookingsPerItem[i];
+                }
+            }
+            return count;
+        }
+
+        private void insertUsers() throws SQLException {
+            try (BatchWriter users = new BatchWriter("INSERT INTO users (id, name, email) VALUES (?, ?, ?)")) {
+                for (int id = 1; id <= settings.getUsers(); id++) {
+                    users.statement.setLong(1, id);
+                    users.statement.setString(2, "User " + id);
+                    users.statement.setString(3, "user" + id + "@shareit.test");
+                    users.add();
+                }
+            }
+        }
+
+        private void insertRequests() throws SQLException {
+            try (BatchWriter requests = new BatchWriter(
+                    "INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)")) {
+                for (int id = 1; id <= settings.getRequests(); id++) {
+                    requests.statement.setLong(1, id);
+                    requests.statement.setString(2, "Need a " + pick(ADJECTIVES).toLowerCase() + " "
+                            + pick(NOUNS).toLowerCase() + " for a few days");
+                    requests.statement.setLong(3, 1 + random.nextInt(settings.getUsers()));
+                    requests.statement.setTimestamp(4, Timestamp.valueOf(
+                            now.minusMinutes(1 + random.nextInt(365 * 24 * 60))));
+                    requests.add();
+                }
+            }
+        }
+
+        // Владельцами становятся первые пользователи: чем меньше id, тем больше у владельца вещей.
+        private void insertItems() throws SQLException {
+            ZipfDistribution owners = new ZipfDistribution(settings.getOwners(), settings.getOwnerSkew());
+            itemOwners = new int[settings.getItems()];
+            itemsPerOwner = new int[settings.getOwners()];
+            try (BatchWriter items = new BatchWriter("INSERT INTO items "
+                    + "(id, name, description, is_available, owner_id, request_id) VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (int id = 1; id <= settings.getItems(); id++) {
+                    int owner = owners.sample(random);
+                    itemOwners[id - 1] = owner + 1;
+                    itemsPerOwner[owner]++;
+
+                    String adjective = pick(ADJECTIVES);
+                    String noun = pick(NOUNS);
+                    items.statement.setLong(1, id);
+                    items.statement.setString(2, adjective + " " + noun);
+                    items.statement.setString(3, noun + " in " + (random.nextBoolean() ? "good" : "excellent")
+                            + " condition, " + adjective.toLowerCase() + " model #" + id);
+                    items.statement.setBoolean(4, random.nextDouble() >= settings.getUnavailableItemRatio());
+                    items.statement.setLong(5, owner + 1);
+                    if (settings.getRequests() > 0 && random.nextDouble() < settings.getRequestedItemRatio()) {
+                        items.statement.setLong(6, 1 + random.nextInt(settings.getRequests()));
+                    } else {
+                        items.statement.setNull(6, Types.BIGINT);
+                    }
+                    items.add();
+                }
+            }
+        }
+
+        private int[] distributeBookings() {
+            ZipfDistribution items = new ZipfDistribution(settings.getItems(), settings.getItemSkew());
+            int[] bookingsPerItem = new int[settings.getItems()];
+            for (int i = 0; i < settings.getBookings(); i++) {
+                bookingsPerItem[items.sample(random)]++;
+            }
+            return bookingsPerItem;
+        }
+
+        // История каждой вещи раскладывается по непересекающимся слотам: прошлые — за последние два года,
+        // будущие — по одному в день начиная с завтрашнего.
+        private void insertBookings(int[] bookingsPerItem) throws SQLException {
+            ZipfDistribution bookers = new ZipfDistribution(settings.getUsers(), settings.getBookerSkew());
+            bookingsPerUser = new int[settings.getUsers()];
+            long bookingId = 0;
+            try (BatchWriter bookings = new BatchWriter("INSERT INTO bookings "
+                    + "(id, start_time, end_time, status, item_id, booker_id) VALUES (?, ?, ?, ?, ?, ?)");
+                 BatchWriter comments = new BatchWriter("INSERT INTO comments "
+                         + "(id, text, user_id, item_id, created) VALUES (?, ?, ?, ?, ?)");
+                 BatchWriter summaries = new BatchWriter("INSERT INTO item_booking_summary (item_id, "
+                         + "last_booking_id, last_booker_id, last_start_time, "
+                         + "next_booking_id, next_booker_id, next_start_time) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int itemId = 1; itemId <= settings.getItems(); itemId++) {
+                    int total = bookingsPerItem[itemId - 1];
+                    int future = Math.min(total, random.nextInt(3));
+                    int past = total - future;
+                    long slotMinutes = past == 0 ? 0 : Math.max(60, HISTORY_MINUTES / past);
+                    BookingRow last = null;
+                    BookingRow next = null;
+
+                    for (int k = 0; k < past; k++) {
+                        LocalDateTime start;
+                        LocalDateTime end;
+                        if (k == 0 && random.nextDouble() < CURRENT_BOOKING_RATIO) {
+                            start = now.minusMinutes(1 + random.nextInt(24 * 60));
+                            end = now.plusMinutes(1 + random.nextInt(24 * 60));
+                        } else {
+                            long duration = 30 + (long) random.nextInt((int) Math.min(Integer.MAX_VALUE, slotMinutes / 2));
+                            end = now.minusMinutes(k * slotMinutes + 1 + (long) random.nextInt(
+                                    (int) Math.min(Integer.MAX_VALUE, slotMinutes - duration)));
+                            start = end.minusMinutes(duration);
+                        }
+                        BookingRow row = new BookingRow(++bookingId, itemId, sampleBooker(bookers, itemId),
+                                start, end, pastStatus());
+                        writeBooking(bookings, row);
+                        if (row.status == BookingStatus.APPROVED) {
+                            if (last == null) {
+                                last = row;
+                            }
+                            if (end.isBefore(now) && random.nextDouble() < settings.getCommentRatio()) {
+                                comments.statement.setLong(1, ++commentCount);
+                                comments.statement.setString(2, pick(REVIEWS));
+                                comments.statement.setLong(3, row.bookerId);
+                                comments.statement.setLong(4, itemId);
+                                LocalDateTime created = end.plusMinutes(1 + random.nextInt(24 * 60));
+                                comments.statement.setTimestamp(5, Timestamp.valueOf(
+                                        created.isBefore(now) ? created : now));
+                                comments.add();
+                            }
+                        }
+                    }
+                    for (int k = 0; k < future; k++) {
+                        LocalDateTime start = now.plusDays(k + 1).plusMinutes(random.nextInt(12 * 60));
+                        BookingRow row = new BookingRow(++bookingId, itemId, sampleBooker(bookers, itemId),
+                                start, start.plusMinutes(30 + random.nextInt(11 * 60)), futureStatus());
+                        writeBooking(bookings, row);
+                        if (next == null && row.status == BookingStatus.APPROVED) {
+                            next = row;
+                        }
+                    }
+
+                    summaries.statement.setLong(1, itemId);
+                    setSummaryBooking(summaries.statement, 2, last);
+                    setSummaryBooking(summaries.statement, 5, next);
+                    summaries.add();
+                }
+            }
+        }
+
+        // Самые активные арендаторы — последние по id, чтобы не совпадать с крупнейшими владельцами.
+        private long sampleBooker(ZipfDistribution bookers, int itemId) {
+            int booker = settings.getUsers() - bookers.sample(random);
+            if (booker == itemOwners[itemId - 1]) {
+                booker = booker % settings.getUsers() + 1;
+            }
+            bookingsPerUser[booker - 1]++;
+            return booker;
+        }
+
+        private BookingStatus pastStatus() {
+            double value = random.nextDouble();
+            return value < 0.85 ? BookingStatus.APPROVED : value < 0.95 ? BookingStatus.REJECTED : BookingStatus.WAITING;
+        }
+
+        private BookingStatus futureStatus() {
+            double value = random.nextDouble();
+            return value < 0.6 ? BookingStatus.APPROVED : value < 0.9 ? BookingStatus.WAITING : BookingStatus.REJECTED;
+        }
+
+        private void writeBooking(BatchWriter bookings, BookingRow row) throws SQLException {
+            bookings.statement.setLong(1, row.id);
+            bookings.statement.setTimestamp(2, Timestamp.valueOf(row.start));
+            bookings.statement.setTimestamp(3, Timestamp.valueOf(row.end));
+            bookings.statement.setString(4, row.status.name());
+            bookings.statement.setLong(5, row.itemId);
+            bookings.statement.setLong(6, row.bookerId);
+            bookings.add();
+        }
+
+        private void setSummaryBooking(PreparedStatement statement, int index, BookingRow row) throws SQLException {
+            if (row == null) {
+                statement.setNull(index, Types.BIGINT);
+                statement.setNull(index + 1, Types.BIGINT);
+                statement.setNull(index + 2, Types.TIMESTAMP);
+            } else {
+                statement.setLong(index, row.id);
+                statement.setLong(index + 1, row.bookerId);
+                statement.setTimestamp(index + 2, Timestamp.valueOf(row.start));
+            }
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+
+        private int indexOfMax(int[] values) {
+            int max = 0;
+            for (int i = 1; i < values.length; i++) {
+                if (values[i] > values[max]) {
+                    max = i;
+                }
+            }
+            return max;
+        }
+
+        @RequiredArgsConstructor
+        private class BookingRow {
+            private final long id;
+            private final long itemId;
+            private final long bookerId;
+            private final LocalDateTime start;
+            private final LocalDateTime end;
+            private final BookingStatus status;
+        }
+
+        // Пакет отправляется каждые batchSize строк и сразу фиксируется, чтобы не держать длинную транзакцию.
+        private class BatchWriter implements AutoCloseable {
+            private final PreparedStatement statement;
+            private int pending;
+
+            BatchWriter(String sql) throws SQLException {
+                statement = connection.prepareStatement(sql);
+            }
+
+            void add() throws SQLException {
+                statement.addBatch();
+                if (++pending == settings.getBatchSize()) {
+                    flush();
+                }
+            }
+
+            private void flush() throws SQLException {
+                if (pending > 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                    pending = 0;
+                }
+            }
+
+            @Override
+            public void close() throws SQLException {
+                try {
+                    flush();
+                } finally {
+                    statement.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.datagen;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Заполнение базы для нагрузочных тестов:
+ * {@code java -cp benchmarks.jar ru.practicum.shareit.datagen.DataGeneratorCli --url=jdbc:postgresql://... --users=1000000}.
+ * Перед генерацией схема доводится до актуальной версии миграциями сервера. {@code --base-time=now}
+ * отсчитывает даты от текущего времени, иначе задаётся ISO-дата, например {@code 2024-01-01T00:00}.
+ */
+public class DataGeneratorCli {
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = parse(args);
+        String url = require(options, "url");
+        String username = options.getOrDefault("username", "");
+        String password = options.getOrDefault("password", "");
+
+        DataGeneratorSettings.DataGeneratorSettingsBuilder settings = DataGeneratorSettings.builder();
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            String value = option.getValue();
+            switch (option.getKey()) {
+                case "url":
+                case "username":
+                case "password":
+                    break;
+                case "seed":
+                    settings.seed(Long.parseLong(value));
+                    break;
+                case "base-time":
+                    settings.baseTime(value.equals("now") ? LocalDateTime.now() : LocalDateTime.parse(value));
+                    break;
+                case "users":
+                    settings.users(Integer.parseInt(value));
+                    break;
+                case "owners":
+                    settings.owners(Integer.parseInt(value));
+                    break;
+                case "items":
+                    settings.items(Integer.parseInt(value));
+                    break;
+                case "requests":
+                    settings.requests(Integer.parseInt(value));
+                    break;
+                case "bookings":
+                    settings.bookings(Integer.parseInt(value));
+                    break;
+                case "owner-skew":
+                    settings.ownerSkew(Double.parseDouble(value));
+                    break;
+                case "item-skew":
+                    settings.itemSkew(Double.parseDouble(value));
+                    break;
+                case "booker-skew":
+                    settings.bookerSkew(Double.parseDouble(value));
+                    break;
+                case "comment-ratio":
+                    settings.commentRatio(Double.parseDouble(value));
+                    break;
+                case "batch-size":
+                    settings.batchSize(Integer.parseInt(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр: --" + option.getKey());
+            }
+        }
+
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            long startedAt = System.nanoTime();
+            GeneratedDataset dataset = new DataGenerator(settings.build()).generate(connection);
+            System.out.println(dataset + " за " + (System.nanoTime() - startedAt) / 1_000_000 + " мс");
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Параметры передаются в виде --имя=значение: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Не задан обязательный параметр --" + name);
+        }
+        return value;
+    }
+}
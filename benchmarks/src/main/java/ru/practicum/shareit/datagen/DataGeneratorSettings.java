@@ -0,0 +1,57 @@
+package ru.practicum.shareit.datagen;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Объёмы и перекос распределений; показатели степени — параметры закона Ципфа,
+// чем больше значение, тем сильнее данные сосредоточены у первых по рангу владельцев, вещей и арендаторов.
+// Все даты отсчитываются от baseTime: прошлые бронирования и запросы — до него, будущие — после.
+@Getter
+@Builder
+@ToString
+public class DataGeneratorSettings {
+    @Builder.Default
+    private final long seed = 42L;
+    @Builder.Default
+    private final LocalDateTime baseTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+    @Builder.Default
+    private final int users = 10_000;
+    @Builder.Default
+    private final int owners = 1_000;
+    @Builder.Default
+    private final int items = 20_000;
+    @Builder.Default
+    private final int requests = 2_000;
+    @Builder.Default
+    private final int bookings = 200_000;
+    @Builder.Default
+    private final double ownerSkew = 1.1;
+    @Builder.Default
+    private final double itemSkew = 1.0;
+    @Builder.Default
+    private final double bookerSkew = 0.8;
+    @Builder.Default
+    private final double requestedItemRatio = 0.2;
+    @Builder.Default
+    private final double unavailableItemRatio = 0.1;
+    @Builder.Default
+    private final double commentRatio = 0.3;
+    @Builder.Default
+    private final int batchSize = 1_000;
+
+    void validate() {
+        if (users < 2 || owners < 1 || owners >= users) {
+            throw new IllegalArgumentException("Нужно хотя бы два пользователя и владельцев меньше, чем пользователей: "
+                    + this);
+        }
+        if (baseTime == null) {
+            throw new IllegalArgumentException("Не задано время отсчёта: " + this);
+        }
+        if (items < 1 || requests < 0 || bookings < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("Некорректные объёмы данных: " + this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.datagen;
+
+import lombok.Builder;
+import lombok.Value;
+
+// Объёмы записанных данных и самые нагруженные сущности, на которые удобно направлять бенчмарки.
+@Value
+@Builder
+public class GeneratedDataset {
+    long users;
+    long requests;
+    long items;
+    long bookings;
+    long comments;
+    long topOwnerId;
+    long topOwnerBookings;
+    long hotItemId;
+    long topBookerId;
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Объединение одинаковых GET-запросов: 64 потока читают вещи одного пользователя с сервера с задержкой 5 мс.
+// При одной вещи почти все запросы присоединяются к уже отправленному, при 10 000 вещей совпадений почти нет,
+// и видна только цена таблицы запросов. Пул не меньше числа потоков, чтобы не ограничивать сравнение.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(64)
+@Fork(1)
+public class CoalescingBenchmark {
+    private static final long SERVER_LATENCY_MILLIS = 5;
+    private static final int POOL_SIZE = 64;
+
+    @Param({"true", "false"})
+    private boolean coalescing;
+
+    @Param({"1", "10000"})
+    private int items;
+
+    private StubServer server;
+    private ConfigurableApplicationContext context;
+    private ItemClient itemClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(SERVER_LATENCY_MILLIS, "{\"id\":1,\"name\":\"Drill\",\"available\":true}");
+        context = new SpringApplicationBuilder(ShareItGateway.class)
+                .web(WebApplicationType.NONE)
+                .run("--shareit-server.url=" + server.url(),
+                        "--shareit-server.coalescing.enabled=" + coalescing,
+                        "--shareit-server.http-client.max-total=" + POOL_SIZE,
+                        "--shareit-server.http-client.max-per-route=" + POOL_SIZE,
+                        "--shareit-server.http-client.connection-request-timeout=30s",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        itemClient = context.getBean(ItemClient.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getItemById() {
+        long itemId = 1 + ThreadLocalRandom.current().nextInt(items);
+        return itemClient.getItemById(1L, itemId).join();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Нагрузочный тест пула соединений шлюза: 64 потока ходят к серверу с задержкой 5 мс.
+// Пока пул меньше числа потоков, пропускная способность растёт примерно пропорционально его размеру.
+// Все потоки читают одну вещь, поэтому объединение запросов выключено: иначе на сервер уходил бы один из них.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(64)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+    private static final long SERVER_LATENCY_MILLIS = 5;
+
+    @Param({"4", "16", "64"})
+    private int poolSize;
+
+    private StubServer server;
+    private ConfigurableApplicationContext context;
+    private ItemClient itemClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(SERVER_LATENCY_MILLIS, "{\"id\":1,\"name\":\"Drill\",\"available\":true}");
+        context = new SpringApplicationBuilder(ShareItGateway.class)
+                .web(WebApplicationType.NONE)
+                .run("--shareit-server.url=" + server.url(),
+                        "--shareit-server.http-client.max-total=" + poolSize,
+                        "--shareit-server.http-client.max-per-route=" + poolSize,
+                        "--shareit-server.http-client.connection-request-timeout=30s",
+                        "--shareit-server.coalescing.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        itemClient = context.getBean(ItemClient.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getItemById() {
+        return itemClient.getItemById(1L, 1L).join();
+    }
+}
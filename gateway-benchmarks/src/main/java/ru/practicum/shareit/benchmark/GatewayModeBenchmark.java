@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// Шлюз целиком, с Tomcat на 16 потоках, перед сервером с задержкой 50 мс; нагрузку дают 128 потоков.
+// В блокирующем режиме пропускная способность ограничена числом потоков Tomcat (около 16 / 0,05 с),
+// в неблокирующем — только задержкой сервера и числом одновременных запросов.
+// Объединение одинаковых запросов выключено, его измеряет CoalescingBenchmark; ограничитель частоты
+// тоже выключен, иначе все потоки упирались бы в лимит одного пользователя.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(128)
+@Fork(1)
+public class GatewayModeBenchmark {
+    private static final long SERVER_LATENCY_MILLIS = 50;
+    private static final int TOMCAT_THREADS = 16;
+
+    @Param({"blocking", "non-blocking"})
+    private String mode;
+
+    private StubServer server;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(SERVER_LATENCY_MILLIS, "{\"id\":1,\"name\":\"Drill\",\"available\":true}");
+        context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--shareit-server.url=" + server.url(),
+                        "--shareit-server.mode=" + mode,
+                        "--shareit-server.http-client.connection-request-timeout=30s",
+                        "--shareit-server.coalescing.enabled=false",
+                        "--shareit-gateway.rate-limit.enabled=false",
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/1"))
+                .header("X-Sharer-User-Id", "1")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.close();
+    }
+
+    @Benchmark
+    public int getItemById() throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.booking.BookingClient;
+
+import java.io.IOException;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+// Стоимость обработки списка бронирований клиентом шлюза, когда сервер отвечает без задержки.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PassThroughBenchmark {
+    @Param({"10", "500"})
+    private int size;
+
+    private StubServer server;
+    private ConfigurableApplicationContext context;
+    private BookingClient bookingClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(0, bookings(size));
+        context = new SpringApplicationBuilder(ShareItGateway.class)
+                .web(WebApplicationType.NONE)
+                .run("--shareit-server.url=" + server.url(),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        bookingClient = context.getBean(BookingClient.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getAllBookerBookings() {
+        return bookingClient.getAllBookerBookings(1L, "ALL", null, 0, size).join();
+    }
+
+    private static String bookings(int count) {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 1; i <= count; i++) {
+            json.add("{\"id\":" + i + ",\"start\":\"2024-05-01T10:00:00\",\"end\":\"2024-05-02T10:00:00\","
+                    + "\"status\":\"APPROVED\",\"booker\":{\"id\":2,\"name\":\"Booker\",\"email\":\"booker@email.com\"},"
+                    + "\"item\":{\"id\":" + i + ",\"name\":\"Cordless Drill\",\"description\":\"Drill in good condition\","
+                    + "\"available\":true}}");
+        }
+        return json.toString();
+    }
+}
@@ -1,14 +1,19 @@
 package ru.practicum.shareit.Error;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
 import ru.practicum.shareit.exception.WrongStateException;
+import ru.practicum.shareit.exception.WrongUserIdException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,12 +36,28 @@ public class ErrorHandler {
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    @ExceptionHandler({MissingRequestHeaderException.class, WrongStateException.class})
+    @ExceptionHandler({MissingRequestHeaderException.class, WrongStateException.class, WrongUserIdException.class})
     public ErrorResponse handleMissingRequestHeaderException(final RuntimeException e) {
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
+    // Сервер не ответил за отведённое время или в пуле не нашлось свободного соединения.
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(ResourceAccessException.class)
+    public ErrorResponse handleResourceAccessException(final ResourceAccessException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Сервер недоступен: " + e.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(final TooManyRequestsException e) {
+        log.debug(e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleOtherException(final Throwable e) {
@@ -1,58 +1,56 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerExchange;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerExchange serverExchange,
+                         RequestCoalescer requestCoalescer, MeterRegistry meterRegistry) {
+        super(serverUrl, API_PREFIX, serverExchange, requestCoalescer, meterRegistry);
     }
 
-    public ResponseEntity<Object> getAllBookerBookings(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<Object>> getAllBookerBookings(long userId, String state, String after, Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?state={state}&from={from}&size={size}", after, parameters), userId, parameters);
     }
 
 
-    public ResponseEntity<Object> create(long userId, BookingDtoInput bookingDtoInput) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, BookingDtoInput bookingDtoInput) {
         return post("", userId, bookingDtoInput);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllOwnerItemBookings(Long ownerId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerItemBookings(Long ownerId, String state, String after, Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        ));
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", after, parameters), ownerId, parameters);
     }
 
-    public ResponseEntity<Object> updateStatus(Long ownerId, Long bookingId, Boolean isApproved) {
+    public CompletableFuture<ResponseEntity<Object>> updateStatus(Long ownerId, Long bookingId, Boolean isApproved) {
         Map<String, Object> parameters = Map.of(
                 "approved", isApproved
         );
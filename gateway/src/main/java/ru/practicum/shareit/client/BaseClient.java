@@ -1,98 +1,149 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
-import org.springframework.http.HttpEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
 
-public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
+import static ru.practicum.shareit.constant.CustomHeaders.NEXT_CURSOR;
 
-    protected ResponseEntity<Object> get(String path) {
+public class BaseClient {
+    private static final String METRIC_NAME = "shareit.gateway.requests";
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final List<String> PASSED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, NEXT_CURSOR);
+
+    private final UriBuilderFactory uriBuilderFactory;
+    private final String apiPrefix;
+    private final ServerExchange serverExchange;
+    private final RequestCoalescer requestCoalescer;
+    private final MeterRegistry meterRegistry;
+
+    public BaseClient(String serverUrl, String apiPrefix, ServerExchange serverExchange,
+                      RequestCoalescer requestCoalescer, MeterRegistry meterRegistry) {
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
+        this.apiPrefix = apiPrefix;
+        this.serverExchange = serverExchange;
+        this.requestCoalescer = requestCoalescer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    protected String withCursor(String path, @Nullable String after, Map<String, Object> parameters) {
+        if (after == null) {
+            return path;
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        parameters.put("after", after);
+        return path + "&after={after}";
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return exchange(method, path, userId, parameters, body)
+                .whenComplete((response, e) -> sample.stop(Timer.builder(METRIC_NAME)
+                        .tag("method", method.name())
+                        .tag("endpoint", endpoint(path))
+                        .tag("state", parameters != null && parameters.get("state") != null
+                                ? parameters.get("state").toString().toUpperCase(Locale.ROOT) : "none")
+                        .tag("status", response == null ? "none" : String.valueOf(response.getStatusCodeValue()))
+                        .tag("outcome", response == null ? Outcome.UNKNOWN.name()
+                                : Outcome.forStatus(response.getStatusCodeValue()).name())
+                        .register(meterRegistry)));
+    }
+
+    // Тело ответа сервера передаётся клиенту как есть, без разбора JSON и повторной сериализации;
+    // проверки шлюза относятся только к запросу. Одновременные одинаковые GET одного пользователя
+    // получают один ответ сервера, массив байт тела между ними общий и не изменяется; GET после
+    // завершённого изменения того же пользователя к более раннему запросу не присоединяется.
+    private <T> CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        HttpHeaders headers = defaultHeaders(userId);
+        CompletableFuture<ResponseEntity<byte[]>> serverResponse = method == HttpMethod.GET
+                ? requestCoalescer.execute(uri + "#" + userId, userId,
+                        () -> serverExchange.exchange(method, uri, headers, null))
+                : serverExchange.exchange(method, uri, headers, body)
+                        .whenComplete((response, e) -> requestCoalescer.writeCompleted(userId));
+        return serverResponse
+                .thenApply(response -> passThrough(response.getStatusCodeValue(), response.getHeaders(),
+                        response.getBody()));
+    }
+
+    // Идентификаторы в пути заменяются шаблоном, чтобы число временных рядов не росло с числом записей.
+    private String endpoint(String path) {
+        int query = path.indexOf('?');
+        String withoutQuery = query < 0 ? path : path.substring(0, query);
+        return apiPrefix + ID_SEGMENT.matcher(withoutQuery).replaceAll("/{id}");
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +156,16 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    // Заголовки соединения и кодирования передачи относятся к ответу сервера, поэтому копируются только
+    // тип содержимого и курсор следующей страницы.
+    private static ResponseEntity<Object> passThrough(int status, HttpHeaders serverHeaders, @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : PASSED_HEADERS) {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
         }
-
-        return responseBuilder.build();
+        return new ResponseEntity<>(body == null || body.length == 0 ? null : body, headers, status);
     }
 }
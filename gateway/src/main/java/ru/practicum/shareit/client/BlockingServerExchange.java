@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+// Запрос выполняется в потоке Tomcat через общий пул соединений, поток занят на всё время ответа сервера.
+@Component
+@ConditionalOnProperty(name = "shareit-server.mode", havingValue = "blocking", matchIfMissing = true)
+public class BlockingServerExchange implements ServerExchange {
+    private final RestTemplate rest;
+
+    public BlockingServerExchange(RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory) {
+        this.rest = builder
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        ResponseEntity<byte[]> response;
+        try {
+            response = rest.exchange(new RequestEntity<>(body, headers, method, uri), byte[].class);
+        } catch (HttpStatusCodeException e) {
+            response = ResponseEntity.status(e.getRawStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return CompletableFuture.completedFuture(response);
+    }
+}
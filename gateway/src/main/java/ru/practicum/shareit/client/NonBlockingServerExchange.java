@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Запрос уходит через неблокирующий HttpClient из JDK: поток Tomcat освобождается сразу,
+// а ответ дописывается в асинхронный запрос сервлета, когда придёт. Клиент настраивается в NonBlockingHttpClientConfig.
+@Component
+@ConditionalOnProperty(name = "shareit-server.mode", havingValue = "non-blocking")
+public class NonBlockingServerExchange implements ServerExchange {
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration readTimeout;
+
+    public NonBlockingServerExchange(HttpClient shareitServerHttpClient, ObjectMapper objectMapper,
+                                     @Value("${shareit-server.http-client.read-timeout:10s}") Duration readTimeout) {
+        this.httpClient = shareitServerHttpClient;
+        this.objectMapper = objectMapper;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .method(method.name(), bodyPublisher(body));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, e) -> {
+                    if (e != null) {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                                + cause.getMessage(), cause instanceof IOException ? (IOException) cause : null);
+                    }
+                    HttpHeaders responseHeaders = new HttpHeaders();
+                    response.headers().map().forEach(responseHeaders::addAll);
+                    return ResponseEntity.status(response.statusCode())
+                            .headers(responseHeaders)
+                            .body(response.body());
+                });
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(@Nullable Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать тело запроса: " + e.getMessage(), e);
+        }
+    }
+}
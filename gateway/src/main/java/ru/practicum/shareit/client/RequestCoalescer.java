@@ -0,0 +1,125 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Одинаковые GET-запросы, пришедшие, пока первый из них ещё ждёт ответа сервера, не уходят на сервер
+ * повторно, а получают тот же ответ. Запрос удаляется из таблицы до раздачи ответа, так что запросы,
+ * пришедшие после ответа, снова идут на сервер. Когда таблица заполнена, запросы выполняются без объединения.
+ * <p>
+ * Чтобы пользователь после своего изменения не получил ответ на запрос, ушедший на сервер раньше,
+ * завершение изменения увеличивает поколение пользователя, и к запросу прошлого поколения новые
+ * не присоединяются. Поколения хранятся в фиксированном массиве по хешу пользователя: при совпадении
+ * хешей объединяется меньше запросов, но устаревший ответ не отдаётся.
+ */
+@Component
+public class RequestCoalescer {
+    public static final String METRIC_NAME = "shareit.gateway.coalescing";
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final Counter leaders;
+    private final Counter collapsed;
+    private final Counter bypassed;
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.enabled:true}") boolean enabled,
+                            @Value("${shareit-server.coalescing.max-in-flight:10000}") int maxInFlight,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.leaders = counter(meterRegistry, "leader");
+        this.collapsed = counter(meterRegistry, "collapsed");
+        this.bypassed = counter(meterRegistry, "bypassed");
+        meterRegistry.gauge(METRIC_NAME + ".active", inFlight, Map::size);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> execute(String key, @Nullable Long userId,
+                                                             Supplier<CompletableFuture<ResponseEntity<byte[]>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long generation = generations.get(stripe(userId));
+        InFlight existing = inFlight.get(key);
+        if (existing != null && existing.generation == generation) {
+            collapsed.increment();
+            return existing.response;
+        }
+        if (existing == null && inFlight.size() >= maxInFlight) {
+            bypassed.increment();
+            return call.get();
+        }
+
+        InFlight shared = new InFlight(new CompletableFuture<>(), generation);
+        while (true) {
+            existing = inFlight.get(key);
+            if (existing != null && existing.generation == generation) {
+                collapsed.increment();
+                return existing.response;
+            }
+            // Запрос прошлого поколения остаётся у своих ожидающих, а в таблице его место занимает новый.
+            if (existing == null ? inFlight.putIfAbsent(key, shared) == null : inFlight.replace(key, existing, shared)) {
+                break;
+            }
+        }
+        leaders.increment();
+        try {
+            call.get().whenComplete((response, e) -> {
+                inFlight.remove(key, shared);
+                if (e != null) {
+                    shared.response.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                            ? e.getCause() : e);
+                } else {
+                    shared.response.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.response.completeExceptionally(e);
+        }
+        return shared.response;
+    }
+
+    // Вызывается до того, как ответ на изменение вернётся клиенту.
+    public void writeCompleted(@Nullable Long userId) {
+        if (enabled) {
+            generations.incrementAndGet(stripe(userId));
+        }
+    }
+
+    private static int stripe(@Nullable Long userId) {
+        return userId == null ? 0 : Math.floorMod(Long.hashCode(userId), GENERATION_STRIPES);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME)
+                .description("GET-запросы к серверу: leader — ушёл на сервер, collapsed — получил чужой ответ, "
+                        + "bypassed — таблица заполнена")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class InFlight {
+        private final CompletableFuture<ResponseEntity<byte[]>> response;
+        private final long generation;
+
+        private InFlight(CompletableFuture<ResponseEntity<byte[]>> response, long generation) {
+            this.response = response;
+            this.generation = generation;
+        }
+    }
+}
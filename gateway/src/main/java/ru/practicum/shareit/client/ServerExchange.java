@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+// Способ отправки запроса на сервер; выбирается свойством shareit-server.mode.
+// Ответ с любым статусом возвращается как есть, а недоступность сервера завершает future
+// с ResourceAccessException.
+public interface ServerExchange {
+    CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                       @Nullable Object body);
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Один пул соединений с сервером на все клиенты шлюза: лимиты общие, и простаивающие соединения одного клиента
+// достаются другим. Нужен только в блокирующем режиме.
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.mode", havingValue = "blocking", matchIfMissing = true)
+public class HttpClientConfig {
+    @Bean
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(
+            @Value("${shareit-server.http-client.max-total:200}") int maxTotal,
+            @Value("${shareit-server.http-client.max-per-route:200}") int maxPerRoute,
+            @Value("${shareit-server.http-client.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    // Если сервер не прислал Keep-Alive, соединение держится не дольше keep-alive, а простаивающие
+    // соединения закрываются фоновым потоком раньше, чем их закроет сервер или балансировщик.
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerHttpClient(
+            PoolingHttpClientConnectionManager shareitServerConnectionManager,
+            @Value("${shareit-server.http-client.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${shareit-server.http-client.connection-request-timeout:1s}") Duration connectionRequestTimeout,
+            @Value("${shareit-server.http-client.read-timeout:10s}") Duration readTimeout,
+            @Value("${shareit-server.http-client.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-server.http-client.evict-idle-after:30s}") Duration evictIdleAfter) {
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive.toMillis()) : keepAlive.toMillis();
+        };
+        return HttpClients.custom()
+                .setConnectionManager(shareitServerConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) connectTimeout.toMillis())
+                        .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                        .setSocketTimeout((int) readTimeout.toMillis())
+                        .build())
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(evictIdleAfter.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient shareitServerHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// HttpClient из JDK для неблокирующего режима. Из настроек shareit-server.http-client.* у него есть аналоги
+// только для connect-timeout и read-timeout (таймаут каждого запроса). Размер и лимиты пула (max-total,
+// max-per-route, connection-request-timeout), проверка и вытеснение простаивающих соединений
+// (validate-after-inactivity, evict-idle-after) не настраиваются, а время жизни соединения задаётся
+// только для всей JVM свойством jdk.httpclient.keepalive.timeout. Вместо метрик пула экспортируются
+// метрики executor, на котором клиент обрабатывает ответы.
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.mode", havingValue = "non-blocking")
+public class NonBlockingHttpClientConfig {
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shareitServerHttpClientExecutor(
+            @Value("${shareit-server.http-client.executor-threads:8}") int threads,
+            MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shareit-server-http-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "shareit-server.http-client", List.of());
+    }
+
+    @Bean
+    public HttpClient shareitServerHttpClient(
+            ExecutorService shareitServerHttpClientExecutor,
+            @Value("${shareit-server.http-client.connect-timeout:1s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(shareitServerHttpClientExecutor)
+                .build();
+    }
+}
@@ -1,36 +1,34 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerExchange;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerExchange serverExchange,
+                      RequestCoalescer requestCoalescer, MeterRegistry meterRegistry) {
+        super(serverUrl, API_PREFIX, serverExchange, requestCoalescer, meterRegistry);
     }
 
-    public ResponseEntity<Object> create(Long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
 
-    public ResponseEntity<Object> getItems(Long userId, Integer start, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getItems(Long userId, Integer start, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", start,
                 "size", size
@@ -38,25 +36,34 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long id) {
+    public CompletableFuture<ResponseEntity<Object>> getItemById(Long userId, Long id) {
         return get("/" + id, userId);
     }
 
-    public ResponseEntity<Object> update(Long userId, Long id, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(Long userId, Long id, ItemDto itemDto) {
         return patch("/" + id, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemByText(Long userId, String text, Integer start, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<Object>> getItemByText(Long userId, String text, String after, Integer start, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", start,
                 "size", size
-        );
+        ));
+
+        return get(withCursor("/search?text={text}&from={from}&size={size}", after, parameters), userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getComments(Long userId, Long itemId, String after, Integer start, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", start,
+                "size", size
+        ));
 
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get(withCursor("/" + itemId + "/comments?from={from}&size={size}", after, parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
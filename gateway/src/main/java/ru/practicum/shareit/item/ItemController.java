@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.validateGroups.Create;
 
 import javax.validation.constraints.Min;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.constant.CustomHeaders.USER_ID;
 
@@ -18,38 +19,47 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(USER_ID) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader(USER_ID) Long userId,
                                          @Validated(Create.class) @RequestBody ItemDto itemDto) {
         return itemClient.create(userId, itemDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader(USER_ID) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getItems(@RequestHeader(USER_ID) Long userId,
                                   @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer start,
                                   @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
         return itemClient.getItems(userId, start, size);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(USER_ID) Long userId, @PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Object>> getItemById(@RequestHeader(USER_ID) Long userId, @PathVariable Long id) {
         return itemClient.getItemById(userId, id);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestHeader(USER_ID) Long userId, @PathVariable Long id,
+    public CompletableFuture<ResponseEntity<Object>> update(@RequestHeader(USER_ID) Long userId, @PathVariable Long id,
                           @RequestBody ItemDto itemDto) {
         return itemClient.update(userId, id, itemDto);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemByText(@RequestHeader(USER_ID) Long userId, @RequestParam (value = "text") String text,
+    public CompletableFuture<ResponseEntity<Object>> getItemByText(@RequestHeader(USER_ID) Long userId, @RequestParam (value = "text") String text,
+                                       @RequestParam(value = "after", required = false) String after,
                                        @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer start,
                                        @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
-        return itemClient.getItemByText(userId, text, start, size);
+        return itemClient.getItemByText(userId, text, after, start, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public CompletableFuture<ResponseEntity<Object>> getComments(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
+                                              @RequestParam(value = "after", required = false) String after,
+                                              @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer start,
+                                              @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
+        return itemClient.getComments(userId, itemId, after, start, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
+    public CompletableFuture<ResponseEntity<Object>> createComment(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
                                     @Validated(Create.class) @RequestBody CommentDto commentDto) {
         return itemClient.createComment(userId, itemId, commentDto);
     }
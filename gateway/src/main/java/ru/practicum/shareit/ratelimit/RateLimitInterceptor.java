@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.constant.CustomHeaders;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.exception.WrongUserIdException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+// Запросы без X-Sharer-User-Id (например, /users) ограничиваются по адресу клиента. Контроллеры возвращают
+// CompletableFuture, и после ответа сервера запрос диспетчеризуется повторно — токен берётся только при первом проходе.
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        RouteGroup group = RouteGroup.of(request);
+        String userId = request.getHeader(CustomHeaders.USER_ID);
+        String clientAddress = request.getRemoteAddr();
+        String userKey = userId != null ? "user:" + parseUserId(userId) : "ip:" + clientAddress;
+        long waitNanos = rateLimiter.tryAcquire(userKey, clientAddress, group);
+        if (waitNanos > 0) {
+            long retryAfter = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            throw new TooManyRequestsException("Превышен лимит запросов для группы " + group.getKey()
+                    + ", повторите через " + retryAfter + " с", retryAfter);
+        }
+        return true;
+    }
+
+    // Заголовок не проверяется сервером до лимита, поэтому произвольные значения отклоняются здесь: иначе
+    // каждое новое значение занимало бы место в таблице корзин. Разбор заодно сводит "007" и "7" к одной корзине.
+    private static long parseUserId(String userId) {
+        try {
+            return Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            throw new WrongUserIdException("Некорректный " + CustomHeaders.USER_ID + ": " + userId);
+        }
+    }
+}
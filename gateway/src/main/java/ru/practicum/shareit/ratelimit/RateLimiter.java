@@ -0,0 +1,159 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token bucket на пользователя и группу маршрутов, реализованный как GCRA: состояние корзины — одно число,
+ * момент, к которому она снова наполнится (TAT), и обновляется оно через CAS без блокировок.
+ * Корзина с TAT в прошлом полна и ничем не отличается от новой, поэтому периодическая чистка удаляет такие
+ * записи без потери лимитов. Если таблица всё равно заполнена, новый пользователь получает корзину из
+ * фиксированного набора по хешу адреса клиента: перебор значений заголовка с одного адреса расходует
+ * лимит этого адреса, а не общий лимит всех новых пользователей.
+ */
+@Component
+public class RateLimiter {
+    public static final String METRIC_NAME = "shareit.gateway.rate-limit";
+
+    private static final RouteGroup[] GROUPS = RouteGroup.values();
+    private static final int OVERFLOW_STRIPES = 1024;
+    private static final long FULL_TABLE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+    private final AtomicLongArray overflow = newBuckets(OVERFLOW_STRIPES, System.nanoTime());
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejected = new EnumMap<>(RouteGroup.class);
+    private final boolean enabled;
+    private final int maxUsers;
+    private final long sweepIntervalNanos;
+
+    public RateLimiter(@Value("${shareit-gateway.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${shareit-gateway.rate-limit.max-users:100000}") int maxUsers,
+                       @Value("${shareit-gateway.rate-limit.sweep-interval:1m}") Duration sweepInterval,
+                       @Value("${shareit-gateway.rate-limit.search.capacity:20}") long searchCapacity,
+                       @Value("${shareit-gateway.rate-limit.search.refill-per-second:10}") double searchRate,
+                       @Value("${shareit-gateway.rate-limit.bookings.capacity:50}") long bookingsCapacity,
+                       @Value("${shareit-gateway.rate-limit.bookings.refill-per-second:25}") double bookingsRate,
+                       @Value("${shareit-gateway.rate-limit.reads.capacity:100}") long readsCapacity,
+                       @Value("${shareit-gateway.rate-limit.reads.refill-per-second:50}") double readsRate,
+                       @Value("${shareit-gateway.rate-limit.writes.capacity:20}") long writesCapacity,
+                       @Value("${shareit-gateway.rate-limit.writes.refill-per-second:5}") double writesRate,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxUsers = maxUsers;
+        this.sweepIntervalNanos = sweepInterval.toNanos();
+        limits.put(RouteGroup.SEARCH, new Limit(searchCapacity, searchRate));
+        limits.put(RouteGroup.BOOKINGS, new Limit(bookingsCapacity, bookingsRate));
+        limits.put(RouteGroup.READS, new Limit(readsCapacity, readsRate));
+        limits.put(RouteGroup.WRITES, new Limit(writesCapacity, writesRate));
+        for (RouteGroup group : GROUPS) {
+            rejected.put(group, Counter.builder(METRIC_NAME)
+                    .description("Запросы, отклонённые ограничителем частоты")
+                    .tag("group", group.getKey())
+                    .register(meterRegistry));
+        }
+        meterRegistry.gauge(METRIC_NAME + ".users", buckets, Map::size);
+    }
+
+    /**
+     * Забирает токен из корзины пользователя. Возвращает 0, если запрос разрешён, иначе — сколько
+     * наносекунд ждать до появления токена.
+     */
+    public long tryAcquire(String userKey, String clientAddress, RouteGroup group) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        sweepIfDue(now, sweepIntervalNanos);
+        AtomicLongArray userBuckets = buckets.get(userKey);
+        int slot = group.ordinal();
+        if (userBuckets == null) {
+            userBuckets = newUserBuckets(userKey, now);
+            if (userBuckets == null) {
+                userBuckets = overflow;
+                slot += Math.floorMod(clientAddress.hashCode(), OVERFLOW_STRIPES) * GROUPS.length;
+            }
+        }
+        Limit limit = limits.get(group);
+        while (true) {
+            long tat = userBuckets.get(slot);
+            long start = tat - now > 0 ? tat : now;
+            long wait = start - now - limit.burstNanos;
+            if (wait > 0) {
+                rejected.get(group).increment();
+                return wait;
+            }
+            if (userBuckets.compareAndSet(slot, tat, start + limit.intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // При заполненной таблице полная чистка идёт не чаще раза в секунду, а не на каждого нового пользователя.
+    private AtomicLongArray newUserBuckets(String userKey, long now) {
+        if (buckets.size() >= maxUsers) {
+            sweepIfDue(now, Math.min(sweepIntervalNanos, FULL_TABLE_SWEEP_INTERVAL_NANOS));
+            if (buckets.size() >= maxUsers) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(userKey, key -> newBuckets(1, now));
+    }
+
+    private void sweepIfDue(long now, long intervalNanos) {
+        long last = lastSweep.get();
+        if (now - last >= intervalNanos && lastSweep.compareAndSet(last, now)) {
+            sweep(now);
+        }
+    }
+
+    private void sweep(long now) {
+        buckets.forEach((key, userBuckets) -> {
+            if (isFull(userBuckets, now)) {
+                buckets.remove(key, userBuckets);
+            }
+        });
+    }
+
+    private static boolean isFull(AtomicLongArray userBuckets, long now) {
+        for (int i = 0; i < userBuckets.length(); i++) {
+            if (userBuckets.get(i) - now > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static AtomicLongArray newBuckets(int users, long now) {
+        AtomicLongArray userBuckets = new AtomicLongArray(users * GROUPS.length);
+        for (int i = 0; i < userBuckets.length(); i++) {
+            userBuckets.set(i, now);
+        }
+        return userBuckets;
+    }
+
+    // Запрос расходует interval наносекунд кредита; корзина вмещает capacity запросов подряд.
+    private static final class Limit {
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        private Limit(long capacity, double refillPerSecond) {
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Ёмкость корзины и скорость пополнения должны быть положительными");
+            }
+            this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+            this.burstNanos = (capacity - 1) * intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+import javax.servlet.http.HttpServletRequest;
+
+// Группы маршрутов с отдельными лимитами. Изменяющие запросы попадают в WRITES независимо от пути;
+// GET-запросы, кроме поиска и бронирований, — в общую группу READS.
+public enum RouteGroup {
+    SEARCH("search"),
+    BOOKINGS("bookings"),
+    READS("reads"),
+    WRITES("writes");
+
+    private final String key;
+
+    RouteGroup(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static RouteGroup of(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method)) {
+            return WRITES;
+        }
+        String path = request.getServletPath();
+        if (path.equals("/items/search")) {
+            return SEARCH;
+        }
+        if (path.equals("/bookings") || path.startsWith("/bookings/")) {
+            return BOOKINGS;
+        }
+        return READS;
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.validateGroups.Create;
 import ru.practicum.shareit.validateGroups.Update;
 
+import java.util.concurrent.CompletableFuture;
+
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(path = "/users")
@@ -15,27 +17,27 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getUsers() {
         return userClient.getUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Object>> getUserById(@PathVariable Long id) {
         return userClient.getUsersById(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Validated(Create.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@Validated(Create.class) @RequestBody UserDto userDto) {
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable Long id, @Validated(Update.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(@PathVariable Long id, @Validated(Update.class) @RequestBody UserDto userDto) {
         return userClient.update(id, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Object>> delete(@PathVariable Long id) {
         return userClient.delete(id);
     }
 }
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.BlockingServerExchange;
+import ru.practicum.shareit.client.NonBlockingServerExchange;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static ru.practicum.shareit.constant.CustomHeaders.NEXT_CURSOR;
+
+public class PassThroughTest {
+    private static final byte[] ERROR_BODY = "{\"error\":\"Вещь с id=1 не найдена.\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private CloseableHttpClient apacheHttpClient;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items/1", exchange -> {
+            try (exchange) {
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                exchange.getResponseHeaders().set(NEXT_CURSOR, "cursor");
+                exchange.getResponseHeaders().set("X-Server-Only", "value");
+                exchange.sendResponseHeaders(404, ERROR_BODY.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(ERROR_BODY);
+                }
+            }
+        });
+        server.createContext("/items/2", exchange -> {
+            try (exchange) {
+                exchange.sendResponseHeaders(500, -1);
+            }
+        });
+        server.start();
+        apacheHttpClient = HttpClients.createDefault();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        apacheHttpClient.close();
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "non-blocking"})
+    void errorResponse_shouldPassStatusBodyAndAllowedHeaders(String mode) {
+        ResponseEntity<Object> response = itemClient(mode).getItemById(1L, 1L).join();
+
+        assertEquals(404, response.getStatusCodeValue());
+        assertArrayEquals(ERROR_BODY, (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("cursor", response.getHeaders().getFirst(NEXT_CURSOR));
+        assertFalse(response.getHeaders().containsKey("X-Server-Only"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "non-blocking"})
+    void errorResponseWithoutBody_shouldPassStatusAndNullBody(String mode) {
+        ResponseEntity<Object> response = itemClient(mode).getItemById(1L, 2L).join();
+
+        assertEquals(500, response.getStatusCodeValue());
+        assertNull(response.getBody());
+    }
+
+    private ItemClient itemClient(String mode) {
+        ServerExchange serverExchange = mode.equals("blocking")
+                ? new BlockingServerExchange(new RestTemplateBuilder(),
+                        new HttpComponentsClientHttpRequestFactory(apacheHttpClient))
+                : new NonBlockingServerExchange(HttpClient.newHttpClient(), new ObjectMapper(), Duration.ofSeconds(5));
+        return new ItemClient("http://localhost:" + server.getAddress().getPort(), serverExchange,
+                new RequestCoalescer(true, 100, meterRegistry), meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.exception.WrongUserIdException;
+import ru.practicum.shareit.ratelimit.RateLimitInterceptor;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import javax.servlet.DispatcherType;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.constant.CustomHeaders.USER_ID;
+
+public class RateLimitInterceptorTest {
+    private RateLimitInterceptor rateLimitInterceptor;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void init() {
+        RateLimiter rateLimiter = new RateLimiter(true, 100, Duration.ofMinutes(1),
+                1, 1, 1, 1, 1, 1, 1, 0.25, new SimpleMeterRegistry());
+        rateLimitInterceptor = new RateLimitInterceptor(rateLimiter);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void preHandle_shouldRejectWithRetryAfterInWholeSeconds_WhenLimitExceeded() {
+        assertTrue(rateLimitInterceptor.preHandle(request("POST", "/items", "1"), response, null));
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> rateLimitInterceptor.preHandle(request("POST", "/items", "1"), response, null));
+
+        assertEquals(4, exception.getRetryAfterSeconds());
+    }
+
+    @Test
+    void preHandle_shouldShareBucket_WhenUserIdHasLeadingZeros() {
+        rateLimitInterceptor.preHandle(request("GET", "/items/1", "7"), response, null);
+
+        assertThrows(TooManyRequestsException.class,
+                () -> rateLimitInterceptor.preHandle(request("GET", "/items/1", "007"), response, null));
+    }
+
+    @Test
+    void preHandle_shouldRejectNonNumericUserId() {
+        WrongUserIdException exception = assertThrows(WrongUserIdException.class,
+                () -> rateLimitInterceptor.preHandle(request("GET", "/items/1", "abc"), response, null));
+
+        assertEquals("Некорректный X-Sharer-User-Id: abc", exception.getMessage());
+    }
+
+    @Test
+    void preHandle_shouldLimitByClientAddress_WhenUserIdMissing() {
+        MockHttpServletRequest first = request("GET", "/users", null);
+        MockHttpServletRequest other = request("GET", "/users", null);
+        other.setRemoteAddr("10.0.0.2");
+
+        rateLimitInterceptor.preHandle(first, response, null);
+
+        assertTrue(rateLimitInterceptor.preHandle(other, response, null));
+        assertThrows(TooManyRequestsException.class,
+                () -> rateLimitInterceptor.preHandle(request("GET", "/users", null), response, null));
+    }
+
+    @Test
+    void preHandle_shouldNotTakeToken_WhenAsyncDispatch() {
+        rateLimitInterceptor.preHandle(request("GET", "/items/1", "1"), response, null);
+        MockHttpServletRequest redispatch = request("GET", "/items/1", "1");
+        redispatch.setDispatcherType(DispatcherType.ASYNC);
+
+        assertTrue(rateLimitInterceptor.preHandle(redispatch, response, null));
+    }
+
+    private MockHttpServletRequest request(String method, String path, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr("10.0.0.1");
+        if (userId != null) {
+            request.addHeader(USER_ID, userId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.ratelimit.RouteGroup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+    private static final String FIRST_ADDRESS = "10.0.0.1";
+    private static final String SECOND_ADDRESS = "10.0.0.2";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void tryAcquire_shouldAllowBurstUpToCapacityThenReturnWait() {
+        RateLimiter rateLimiter = rateLimiter(100, Duration.ofMinutes(1), 3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.READS));
+        }
+        long wait = rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.READS);
+
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(900) && wait <= TimeUnit.SECONDS.toNanos(1),
+                "Ожидание должно быть около одного интервала пополнения: " + wait);
+        assertEquals(1.0, meterRegistry.get(RateLimiter.METRIC_NAME).tag("group", "reads").counter().count());
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOverTime() throws InterruptedException {
+        RateLimiter rateLimiter = rateLimiter(100, Duration.ofMinutes(1), 1, 20);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.SEARCH));
+        assertTrue(rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.SEARCH) > 0);
+        Thread.sleep(60);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.SEARCH));
+    }
+
+    @Test
+    void tryAcquire_shouldKeepSeparateBucketsPerUserAndGroup() {
+        RateLimiter rateLimiter = rateLimiter(100, Duration.ofMinutes(1), 1, 1);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.WRITES));
+        assertTrue(rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.WRITES) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.READS));
+        assertEquals(0, rateLimiter.tryAcquire("user:2", FIRST_ADDRESS, RouteGroup.WRITES));
+    }
+
+    @Test
+    void tryAcquire_shouldLimitNewUsersByClientAddress_WhenTableFull() {
+        RateLimiter rateLimiter = rateLimiter(1, Duration.ofMinutes(1), 1, 1);
+        rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.READS);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:2", FIRST_ADDRESS, RouteGroup.READS));
+        assertTrue(rateLimiter.tryAcquire("user:3", FIRST_ADDRESS, RouteGroup.READS) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("user:4", SECOND_ADDRESS, RouteGroup.READS));
+        assertEquals(1.0, users());
+    }
+
+    @Test
+    void tryAcquire_shouldSweepRefilledBuckets_WhenIntervalPassed() throws InterruptedException {
+        RateLimiter rateLimiter = rateLimiter(1, Duration.ofMillis(10), 1, 20);
+        rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.READS);
+        Thread.sleep(60);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:2", FIRST_ADDRESS, RouteGroup.READS));
+        // Второй пользователь занял место в таблице, поэтому корзина адреса для новых пользователей ещё полна.
+        assertEquals(0, rateLimiter.tryAcquire("user:3", FIRST_ADDRESS, RouteGroup.READS));
+        assertEquals(1.0, users());
+    }
+
+    @Test
+    void tryAcquire_shouldNotSweepForEveryNewUser_WhenTableFull() throws InterruptedException {
+        RateLimiter rateLimiter = rateLimiter(1, Duration.ofHours(1), 1, 20);
+        rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.READS);
+        Thread.sleep(60);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:2", FIRST_ADDRESS, RouteGroup.READS));
+        assertTrue(rateLimiter.tryAcquire("user:3", FIRST_ADDRESS, RouteGroup.READS) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldAllowEverything_WhenDisabled() {
+        RateLimiter rateLimiter = new RateLimiter(false, 100, Duration.ofMinutes(1),
+                1, 1, 1, 1, 1, 1, 1, 1, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("user:1", FIRST_ADDRESS, RouteGroup.WRITES));
+        }
+    }
+
+    private RateLimiter rateLimiter(int maxUsers, Duration sweepInterval, long capacity, double refillPerSecond) {
+        return new RateLimiter(true, maxUsers, sweepInterval,
+                capacity, refillPerSecond,
+                capacity, refillPerSecond,
+                capacity, refillPerSecond,
+                capacity, refillPerSecond,
+                meterRegistry);
+    }
+
+    private double users() {
+        return meterRegistry.get(RateLimiter.METRIC_NAME + ".users").gauge().value();
+    }
+}
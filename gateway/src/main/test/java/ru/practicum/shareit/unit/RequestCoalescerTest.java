@@ -0,0 +1,133 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.RequestCoalescer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestCoalescerTest {
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer requestCoalescer;
+    private List<CompletableFuture<ResponseEntity<byte[]>>> calls;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(true, 100, meterRegistry);
+        calls = new ArrayList<>();
+    }
+
+    @Test
+    void execute_shouldShareOneCall_WhenSameKeyInFlight() {
+        CompletableFuture<ResponseEntity<byte[]>> first = requestCoalescer.execute("/items/1#1", 1L, call());
+        CompletableFuture<ResponseEntity<byte[]>> second = requestCoalescer.execute("/items/1#1", 1L, call());
+        ResponseEntity<byte[]> response = ResponseEntity.ok(new byte[]{1});
+        calls.get(0).complete(response);
+
+        assertEquals(1, calls.size());
+        assertSame(response, first.join());
+        assertSame(response, second.join());
+        assertEquals(1.0, count("leader"));
+        assertEquals(1.0, count("collapsed"));
+    }
+
+    @Test
+    void execute_shouldCallServerAgain_WhenPreviousCallCompleted() {
+        requestCoalescer.execute("/items/1#1", 1L, call());
+        calls.get(0).complete(ResponseEntity.ok(new byte[]{1}));
+        requestCoalescer.execute("/items/1#1", 1L, call());
+
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void execute_shouldNotJoinCallSentBeforeUsersWrite() {
+        CompletableFuture<ResponseEntity<byte[]>> beforeWrite = requestCoalescer.execute("/items/1#1", 1L, call());
+        requestCoalescer.writeCompleted(1L);
+        CompletableFuture<ResponseEntity<byte[]>> afterWrite = requestCoalescer.execute("/items/1#1", 1L, call());
+        CompletableFuture<ResponseEntity<byte[]>> joined = requestCoalescer.execute("/items/1#1", 1L, call());
+        ResponseEntity<byte[]> stale = ResponseEntity.ok(new byte[]{1});
+        ResponseEntity<byte[]> fresh = ResponseEntity.ok(new byte[]{2});
+        calls.get(0).complete(stale);
+        calls.get(1).complete(fresh);
+
+        assertEquals(2, calls.size());
+        assertSame(stale, beforeWrite.join());
+        assertSame(fresh, afterWrite.join());
+        assertSame(fresh, joined.join());
+    }
+
+    @Test
+    void execute_shouldKeepCoalescing_WhenOtherUserWrites() {
+        requestCoalescer.execute("/items/1#1", 1L, call());
+        requestCoalescer.writeCompleted(2L);
+        requestCoalescer.execute("/items/1#1", 1L, call());
+
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void execute_shouldBypassTable_WhenMaxInFlightReached() {
+        requestCoalescer = new RequestCoalescer(true, 1, meterRegistry);
+
+        requestCoalescer.execute("/items/1#1", 1L, call());
+        requestCoalescer.execute("/items/2#1", 1L, call());
+        requestCoalescer.execute("/items/2#1", 1L, call());
+        requestCoalescer.execute("/items/1#1", 1L, call());
+
+        assertEquals(3, calls.size());
+        assertEquals(2.0, count("bypassed"));
+        assertEquals(1.0, count("collapsed"));
+    }
+
+    @Test
+    void execute_shouldPassFailureToAllWaitersAndForgetCall() {
+        CompletableFuture<ResponseEntity<byte[]>> first = requestCoalescer.execute("/items/1#1", 1L, call());
+        CompletableFuture<ResponseEntity<byte[]>> second = requestCoalescer.execute("/items/1#1", 1L, call());
+        IllegalStateException failure = new IllegalStateException("Сервер недоступен");
+        calls.get(0).completeExceptionally(failure);
+
+        CompletionException firstError = assertThrows(CompletionException.class, first::join);
+        CompletionException secondError = assertThrows(CompletionException.class, second::join);
+        assertSame(failure, firstError.getCause());
+        assertSame(failure, secondError.getCause());
+
+        requestCoalescer.execute("/items/1#1", 1L, call());
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void execute_shouldCallServerEveryTime_WhenDisabled() {
+        requestCoalescer = new RequestCoalescer(false, 100, meterRegistry);
+
+        requestCoalescer.execute("/items/1#1", 1L, call());
+        requestCoalescer.execute("/items/1#1", 1L, call());
+
+        assertEquals(2, calls.size());
+        assertTrue(calls.stream().noneMatch(CompletableFuture::isDone));
+    }
+
+    private Supplier<CompletableFuture<ResponseEntity<byte[]>>> call() {
+        return () -> {
+            CompletableFuture<ResponseEntity<byte[]>> response = new CompletableFuture<>();
+            calls.add(response);
+            return response;
+        };
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(RequestCoalescer.METRIC_NAME).tag("result", result).counter().count();
+    }
+}
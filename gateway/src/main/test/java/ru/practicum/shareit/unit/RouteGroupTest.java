@@ -0,0 +1,35 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import ru.practicum.shareit.ratelimit.RouteGroup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RouteGroupTest {
+    @ParameterizedTest
+    @CsvSource({
+            "GET, /items/search, SEARCH",
+            "GET, /bookings, BOOKINGS",
+            "GET, /bookings/owner, BOOKINGS",
+            "GET, /bookings/5, BOOKINGS",
+            "GET, /bookingsarchive, READS",
+            "GET, /items, READS",
+            "GET, /items/1, READS",
+            "GET, /users/1, READS",
+            "GET, /requests/all, READS",
+            "HEAD, /items/1, READS",
+            "POST, /items, WRITES",
+            "POST, /items/search, WRITES",
+            "PATCH, /bookings/5, WRITES",
+            "PUT, /items/1, WRITES",
+            "DELETE, /users/1, WRITES"
+    })
+    void of_shouldMapRequestToGroup(String method, String path, RouteGroup expected) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+
+        assertEquals(expected, RouteGroup.of(request));
+    }
+}
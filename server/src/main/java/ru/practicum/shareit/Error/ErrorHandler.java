@@ -23,12 +23,20 @@ public class ErrorHandler {
     @ExceptionHandler({MissingRequestHeaderException.class,
             ItemAvailabilityException.class,
             WrongStateException.class,
-            WrongStatusException.class})
+            WrongStatusException.class,
+            WrongCursorException.class})
     public ErrorResponse handleMissingRequestHeaderException(final RuntimeException e) {
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler({BookingOverlapException.class, DuplicateEmailException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final RuntimeException e) {
+        log.error(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleOtherException(final Throwable e) {
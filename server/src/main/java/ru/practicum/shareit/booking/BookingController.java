@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
@@ -37,18 +38,20 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoOutput> getAllBookerBookings(@RequestHeader(USER_ID) Long userId,
+    public ResponseEntity<List<BookingDtoOutput>> getAllBookerBookings(@RequestHeader(USER_ID) Long userId,
                                                        @RequestParam(defaultValue = "ALL") String state,
+                                                       @RequestParam(value = "after", required = false) String after,
                                                        @RequestParam(value = "from", defaultValue = "0") Integer from,
                                                        @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return bookingService.getAllBookerBookings(userId, state, from, size);
+        return bookingService.getAllBookerBookings(userId, state, after, from, size).toResponse();
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOutput> getAllOwnerItemBookings(@RequestHeader(USER_ID) Long ownerId,
+    public ResponseEntity<List<BookingDtoOutput>> getAllOwnerItemBookings(@RequestHeader(USER_ID) Long ownerId,
                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                          @RequestParam(value = "after", required = false) String after,
                                                           @RequestParam(value = "from", defaultValue = "0") Integer from,
                                                           @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return bookingService.getAllOwnerItemBookings(ownerId, state, from, size);
+        return bookingService.getAllOwnerItemBookings(ownerId, state, after, from, size).toResponse();
     }
 }
@@ -7,6 +7,7 @@ import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -37,7 +38,7 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStartTime())
                 .end(booking.getEndTime())
-                .item(itemMapper.getItemDto(booking.getItem(), null, null, null))
+                .item(itemMapper.getItemDto(booking.getItem(), null, null, null, null))
                 .booker(userMapper.getUserDto(booking.getBooker()))
                 .status(booking.getStatus())
                 .build();
@@ -53,6 +54,26 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingItemDto createLastBookingItemDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getLastBookingId() == null) {
+            return null;
+        }
+        return BookingItemDto.builder()
+                .id(summary.getLastBookingId())
+                .bookerId(summary.getLastBookerId())
+                .build();
+    }
+
+    public BookingItemDto createNextBookingItemDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getNextBookingId() == null) {
+            return null;
+        }
+        return BookingItemDto.builder()
+                .id(summary.getNextBookingId())
+                .bookerId(summary.getNextBookerId())
+                .build();
+    }
+
     public List<BookingDtoOutput> createDtoOutputList(List<Booking> bookings) {
         return bookings.stream()
                 .map(this::createDtoOutput)
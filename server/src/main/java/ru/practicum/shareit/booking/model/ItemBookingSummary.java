@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start_time")
+    private LocalDateTime lastStartTime;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start_time")
+    private LocalDateTime nextStartTime;
+
+    // Сводка верна, пока не началось следующее бронирование: после этого оно становится последним.
+    public boolean isStale(LocalDateTime now) {
+        return nextStartTime != null && !nextStartTime.isAfter(now);
+    }
+}
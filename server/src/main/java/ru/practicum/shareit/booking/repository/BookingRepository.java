@@ -1,68 +1,178 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.dto.BookingTimes;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
     @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
             "WHERE b.booker.id = ?1 " +
             "AND b.startTime <= ?2 " +
             "AND b.endTime >= ?2 " +
-            "ORDER BY b.startTime DESC")
-    List<Booking> readAllBookerCurrentBookings(long bookerId, LocalDateTime now, Pageable pageable);
+            "AND (b.startTime < ?3 OR (b.startTime = ?3 AND b.id < ?4)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllBookerCurrentBookings(long bookerId, LocalDateTime now,
+                                               LocalDateTime afterStart, long afterId, Pageable pageable);
 
     @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
             "WHERE b.booker.id = ?1 " +
             "AND b.startTime <= ?2 " +
             "AND b.endTime <= ?2 " +
-            "ORDER BY b.startTime DESC")
-    List<Booking> readAllBookerPastBookings(long bookerId, LocalDateTime now, Pageable pageable);
+            "AND (b.startTime < ?3 OR (b.startTime = ?3 AND b.id < ?4)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllBookerPastBookings(long bookerId, LocalDateTime now,
+                                            LocalDateTime afterStart, long afterId, Pageable pageable);
 
     @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
             "WHERE b.booker.id = ?1 " +
             "AND b.startTime >= ?2 " +
             "AND b.endTime >= ?2 " +
-            "ORDER BY b.startTime DESC")
-    List<Booking> readAllBookerFutureBookings(long bookerId, LocalDateTime now, Pageable pageable);
+            "AND (b.startTime < ?3 OR (b.startTime = ?3 AND b.id < ?4)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllBookerFutureBookings(long bookerId, LocalDateTime now,
+                                              LocalDateTime afterStart, long afterId, Pageable pageable);
 
-    List<Booking> findAllByBooker_IdAndStatusOrderByStartTimeDesc(long bookerId, BookingStatus status, Pageable pageable);
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.status = ?2 " +
+            "AND (b.startTime < ?3 OR (b.startTime = ?3 AND b.id < ?4)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllBookerBookingsByStatus(long bookerId, BookingStatus status,
+                                                LocalDateTime afterStart, long afterId, Pageable pageable);
 
-    List<Booking> findAllByBooker_IdOrderByStartTimeDesc(long bookerId, Pageable pageable);
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.booker.id = ?1 " +
+            "AND (b.startTime < ?2 OR (b.startTime = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllBookerBookings(long bookerId, LocalDateTime afterStart, long afterId, Pageable pageable);
 
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id IN ?1 " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
             "AND b.startTime <= ?2 " +
             "AND b.endTime >= ?2 " +
-            "ORDER BY b.startTime DESC")
-    List<Booking> readAllOwnerItemsCurrentBookings(List<Long> itemIds, LocalDateTime now, Pageable pageable);
+            "AND (b.startTime < ?3 OR (b.startTime = ?3 AND b.id < ?4)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllOwnerCurrentBookings(long ownerId, LocalDateTime now,
+                                              LocalDateTime afterStart, long afterId, Pageable pageable);
 
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id IN ?1 " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
             "AND b.startTime <= ?2 " +
             "AND b.endTime <= ?2 " +
-            "ORDER BY b.startTime DESC")
-    List<Booking> readAllOwnerItemsPastBookings(List<Long> itemIds, LocalDateTime now, Pageable pageable);
+            "AND (b.startTime < ?3 OR (b.startTime = ?3 AND b.id < ?4)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllOwnerPastBookings(long ownerId, LocalDateTime now,
+                                           LocalDateTime afterStart, long afterId, Pageable pageable);
 
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id IN ?1 " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
             "AND b.startTime >= ?2 " +
             "AND b.endTime >= ?2 " +
-            "ORDER BY b.startTime DESC")
-    List<Booking> readAllOwnerItemsFutureBookings(List<Long> itemIds, LocalDateTime now, Pageable pageable);
+            "AND (b.startTime < ?3 OR (b.startTime = ?3 AND b.id < ?4)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllOwnerFutureBookings(long ownerId, LocalDateTime now,
+                                             LocalDateTime afterStart, long afterId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.status = ?2 " +
+            "AND (b.startTime < ?3 OR (b.startTime = ?3 AND b.id < ?4)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllOwnerBookingsByStatus(long ownerId, BookingStatus status,
+                                               LocalDateTime afterStart, long afterId, Pageable pageable);
 
-    List<Booking> findAllByItem_IdInOrderByStartTimeDesc(List<Long> itemIds, Pageable pageable);
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "AND (b.startTime < ?2 OR (b.startTime = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.startTime DESC, b.id DESC")
+    List<Booking> readAllOwnerBookings(long ownerId,
+                                       LocalDateTime afterStart, long afterId, Pageable pageable);
 
-    List<Booking> findAllByItem_IdInAndStatusInOrderByStartTimeDesc(List<Long> itemIds, List<BookingStatus> status, Pageable pageable);
+    @Query("SELECT count(b) > 0 FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.status IN ?2 " +
+            "AND b.startTime < ?4 " +
+            "AND b.endTime > ?3")
+    boolean existsOverlapping(Long itemId, Collection<BookingStatus> statuses, LocalDateTime start, LocalDateTime end);
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.booker.id = ?2 " +
+            "AND b.status = ?3")
     List<Booking> findAllByItem_IdAndBooker_IdAndStatus(Long itemId, Long bookerId, BookingStatus status);
 
-    List<Booking> findAllByItemId(Long itemId);
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.booker.id = ?1")
+    List<Long> findItemIdsBookedBy(long bookerId);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.booker.id AS bookerId, b.startTime AS startTime " +
+            "FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.status = ?2 " +
+            "AND b.startTime < ?3 " +
+            "ORDER BY b.startTime DESC, b.id ASC")
+    List<BookingShort> findLastBookings(Long itemId, BookingStatus status, LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.booker.id AS bookerId, b.startTime AS startTime " +
+            "FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.status = ?2 " +
+            "AND b.startTime > ?3 " +
+            "ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingShort> findNextBookings(Long itemId, BookingStatus status, LocalDateTime now, Pageable pageable);
+
+    // Начала последнего и следующего бронирования всех вещей за один проход по индексу (item_id, status, start_time).
+    // Коррелированный подзапрос max/min на каждое бронирование делал выборку квадратичной по числу бронирований вещи.
+    @Query("SELECT b.item.id AS itemId, " +
+            "max(CASE WHEN b.startTime < ?3 THEN b.startTime END) AS lastStartTime, " +
+            "min(CASE WHEN b.startTime > ?3 THEN b.startTime END) AS nextStartTime " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN ?1 " +
+            "AND b.status = ?2 " +
+            "GROUP BY b.item.id")
+    List<BookingTimes> findBookingTimesForItems(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.booker.id AS bookerId, b.startTime AS startTime " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN ?1 " +
+            "AND b.status = ?2 " +
+            "AND b.startTime IN ?3")
+    List<BookingShort> findBookingsForItemsStartingAt(Collection<Long> itemIds, BookingStatus status,
+                                                      Collection<LocalDateTime> startTimes);
 }
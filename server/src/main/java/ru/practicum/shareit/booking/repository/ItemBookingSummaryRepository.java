@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s " +
+            "SET s.lastBookingId = ?2, s.lastBookerId = ?3, s.lastStartTime = ?4, " +
+            "s.nextBookingId = ?5, s.nextBookerId = ?6, s.nextStartTime = ?7 " +
+            "WHERE s.itemId = ?1 " +
+            "AND s.nextStartTime <= ?8")
+    int updateIfStale(Long itemId, Long lastBookingId, Long lastBookerId, LocalDateTime lastStartTime,
+                      Long nextBookingId, Long nextBookerId, LocalDateTime nextStartTime, LocalDateTime now);
+}
@@ -2,8 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
-
-import java.util.List;
+import ru.practicum.shareit.pagination.CursorPage;
 
 public interface BookingService {
 
@@ -13,7 +12,9 @@ public interface BookingService {
 
     BookingDtoOutput getBooking(Long userId, Long bookingId);
 
-    List<BookingDtoOutput> getAllBookerBookings(Long userId, String state, Integer start, Integer size);
+    CursorPage<BookingDtoOutput> getAllBookerBookings(Long userId, String state, String after,
+                                                      Integer start, Integer size);
 
-    List<BookingDtoOutput> getAllOwnerItemBookings(Long ownerId, String state, Integer start, Integer size);
+    CursorPage<BookingDtoOutput> getAllOwnerItemBookings(Long ownerId, String state, String after,
+                                                         Integer start, Integer size);
 }
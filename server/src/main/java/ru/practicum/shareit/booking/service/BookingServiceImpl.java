@@ -1,9 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -11,24 +11,35 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.TimeCursor;
+import ru.practicum.shareit.user.directory.UserDirectory;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemViewCache itemViewCache;
+    private final UserDirectory userDirectory;
 
     @Override
+    @Transactional
     public BookingDtoOutput create(Long bookerId, BookingDtoInput bookingDtoInput) {
         User booker = userRepository.findById(bookerId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + bookerId + " не найден."));
@@ -42,14 +53,20 @@ public class BookingServiceImpl implements BookingService {
         if (!item.getAvailable()) {
             throw new ItemAvailabilityException("вещь недоступна");
         }
+
+        itemRepository.lockById(item.getId());
+        if (bookingRepository.existsOverlapping(item.getId(), ACTIVE_STATUSES,
+                bookingDtoInput.getStart(), bookingDtoInput.getEnd())) {
+            throw new BookingOverlapException("Вещь с id=" + item.getId() + " уже забронирована на это время.");
+        }
         Booking booking = bookingMapper.createBookingFromDto(bookingDtoInput, item, booker, BookingStatus.WAITING);
         return bookingMapper.createDtoOutput(bookingRepository.save(booking));
     }
 
     @Override
+    @Transactional
     public BookingDtoOutput updateStatus(Long ownerId, Long bookingId, Boolean isApproved) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + ownerId + " не найден."));
+        userDirectory.requireExists(ownerId);
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new DataNotFoundException("Бронирование с id=" + bookingId + " не найдено."));
 
@@ -61,13 +78,17 @@ public class BookingServiceImpl implements BookingService {
             throw new WrongStatusException("Невозможно изменить статус вещи. Текущий статус " + booking.getStatus());
         }
         booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return bookingMapper.createDtoOutput(bookingRepository.save(booking));
+        itemRepository.lockById(booking.getItem().getId());
+        booking = bookingRepository.save(booking);
+        itemBookingSummaryService.update(booking);
+        BookingDtoOutput updatedBooking = bookingMapper.createDtoOutput(booking);
+        itemViewCache.invalidate(booking.getItem().getId());
+        return updatedBooking;
     }
 
     @Override
     public BookingDtoOutput getBooking(Long userId, Long bookingId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
+        userDirectory.requireExists(userId);
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new DataNotFoundException("Бронирование с id=" + bookingId + " не найдено."));
 
@@ -79,66 +100,91 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDtoOutput> getAllBookerBookings(Long userId, String state, Integer start, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
-        Pageable pageable = PageRequest.of(start / size, size);
+    public CursorPage<BookingDtoOutput> getAllBookerBookings(Long userId, String state, String after,
+                                                             Integer start, Integer size) {
+        userDirectory.requireExists(userId);
+        TimeCursor cursor = TimeCursor.decode(after);
+        Pageable pageable = new OffsetPageRequest(after == null ? start : 0, size);
+        LocalDateTime afterStart = cursor.getTime();
+        long afterId = cursor.getId();
+        List<Booking> bookings;
 
         switch (state.toUpperCase()) {
             case "CURRENT":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .readAllBookerCurrentBookings(userId, LocalDateTime.now(), pageable));
+                bookings = bookingRepository.readAllBookerCurrentBookings(userId, LocalDateTime.now(),
+                        afterStart, afterId, pageable);
+                break;
             case "PAST":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .readAllBookerPastBookings(userId, LocalDateTime.now(), pageable));
+                bookings = bookingRepository.readAllBookerPastBookings(userId, LocalDateTime.now(),
+                        afterStart, afterId, pageable);
+                break;
             case "FUTURE":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .readAllBookerFutureBookings(userId, LocalDateTime.now(), pageable));
+                bookings = bookingRepository.readAllBookerFutureBookings(userId, LocalDateTime.now(),
+                        afterStart, afterId, pageable);
+                break;
             case "WAITING":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .findAllByBooker_IdAndStatusOrderByStartTimeDesc(userId, BookingStatus.WAITING, pageable));
+                bookings = bookingRepository.readAllBookerBookingsByStatus(userId, BookingStatus.WAITING,
+                        afterStart, afterId, pageable);
+                break;
             case "REJECTED":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .findAllByBooker_IdAndStatusOrderByStartTimeDesc(userId, BookingStatus.REJECTED, pageable));
+                bookings = bookingRepository.readAllBookerBookingsByStatus(userId, BookingStatus.REJECTED,
+                        afterStart, afterId, pageable);
+                break;
             case "ALL":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .findAllByBooker_IdOrderByStartTimeDesc(userId, pageable));
+                bookings = bookingRepository.readAllBookerBookings(userId, afterStart, afterId, pageable);
+                break;
             default:
                 throw new WrongStateException("Unknown state: UNSUPPORTED_STATUS");
         }
+        return toPage(bookings, size);
     }
 
     @Override
-    public List<BookingDtoOutput> getAllOwnerItemBookings(Long ownerId, String state, Integer start, Integer size) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + ownerId + " не найден."));
-        Pageable pageable = PageRequest.of(start / size, size);
-        List<Long> itemIds = itemRepository.findAllByOwnerId(ownerId)
-                .stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
+    public CursorPage<BookingDtoOutput> getAllOwnerItemBookings(Long ownerId, String state, String after,
+                                                                Integer start, Integer size) {
+        userDirectory.requireExists(ownerId);
+        TimeCursor cursor = TimeCursor.decode(after);
+        Pageable pageable = new OffsetPageRequest(after == null ? start : 0, size);
+        LocalDateTime afterStart = cursor.getTime();
+        long afterId = cursor.getId();
+        List<Booking> bookings;
 
         switch (state.toUpperCase()) {
             case "CURRENT":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .readAllOwnerItemsCurrentBookings(itemIds, LocalDateTime.now(), pageable));
+                bookings = bookingRepository.readAllOwnerCurrentBookings(ownerId, LocalDateTime.now(),
+                        afterStart, afterId, pageable);
+                break;
             case "PAST":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .readAllOwnerItemsPastBookings(itemIds, LocalDateTime.now(), pageable));
+                bookings = bookingRepository.readAllOwnerPastBookings(ownerId, LocalDateTime.now(),
+                        afterStart, afterId, pageable);
+                break;
             case "FUTURE":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .readAllOwnerItemsFutureBookings(itemIds, LocalDateTime.now(), pageable));
+                bookings = bookingRepository.readAllOwnerFutureBookings(ownerId, LocalDateTime.now(),
+                        afterStart, afterId, pageable);
+                break;
             case "WAITING":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .findAllByItem_IdInAndStatusInOrderByStartTimeDesc(itemIds, List.of(BookingStatus.WAITING), pageable));
+                bookings = bookingRepository.readAllOwnerBookingsByStatus(ownerId, BookingStatus.WAITING,
+                        afterStart, afterId, pageable);
+                break;
             case "REJECTED":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .findAllByItem_IdInAndStatusInOrderByStartTimeDesc(itemIds, List.of(BookingStatus.REJECTED), pageable));
+                bookings = bookingRepository.readAllOwnerBookingsByStatus(ownerId, BookingStatus.REJECTED,
+                        afterStart, afterId, pageable);
+                break;
             case "ALL":
-                return bookingMapper.createDtoOutputList(bookingRepository
-                        .findAllByItem_IdInOrderByStartTimeDesc(itemIds, pageable));
+                bookings = bookingRepository.readAllOwnerBookings(ownerId, afterStart, afterId, pageable);
+                break;
             default:
                 throw new WrongStateException("Unknown state: UNSUPPORTED_STATUS");
         }
+        return toPage(bookings, size);
+    }
+
+    private CursorPage<BookingDtoOutput> toPage(List<Booking> bookings, int size) {
+        List<BookingDtoOutput> bookingDtos = bookingMapper.createDtoOutputList(bookings);
+        if (bookings.size() < size) {
+            return new CursorPage<>(bookingDtos, null);
+        }
+        Booking last = bookings.get(bookings.size() - 1);
+        return new CursorPage<>(bookingDtos, TimeCursor.encode(last.getStartTime(), last.getId()));
     }
 }
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.dto.BookingTimes;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryCalculator {
+    private static final Pageable FIRST_BOOKING = PageRequest.of(0, 1);
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    // Сводки всех вещей считаются двумя запросами в текущей транзакции, без блокировок и записи,
+    // поэтому подходят и для чтения с реплики: первый находит начала последнего и следующего бронирования,
+    // второй — сами бронирования с этими началами.
+    public Map<Long, ItemBookingSummary> calculate(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, BookingTimes> times = bookingRepository
+                .findBookingTimesForItems(itemIds, BookingStatus.APPROVED, now).stream()
+                .collect(Collectors.toMap(BookingTimes::getItemId, Function.identity()));
+        Set<LocalDateTime> startTimes = new HashSet<>();
+        for (BookingTimes itemTimes : times.values()) {
+            if (itemTimes.getLastStartTime() != null) {
+                startTimes.add(itemTimes.getLastStartTime());
+            }
+            if (itemTimes.getNextStartTime() != null) {
+                startTimes.add(itemTimes.getNextStartTime());
+            }
+        }
+        List<BookingShort> bookings = startTimes.isEmpty() ? List.of() : bookingRepository
+                .findBookingsForItemsStartingAt(times.keySet(), BookingStatus.APPROVED, startTimes);
+
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (Long itemId : itemIds) {
+            BookingTimes itemTimes = times.get(itemId);
+            ItemBookingSummary summary = ItemBookingSummary.builder().itemId(itemId).build();
+            fill(summary, startingAt(bookings, itemId, itemTimes == null ? null : itemTimes.getLastStartTime()),
+                    startingAt(bookings, itemId, itemTimes == null ? null : itemTimes.getNextStartTime()));
+            summaries.put(itemId, summary);
+        }
+        return summaries;
+    }
+
+    // Пересчитанная сводка записывается, только если сохранённая всё ещё устарела: сводку, которую
+    // за это время обновило подтверждение бронирования, условие в UPDATE не тронет.
+    @Transactional
+    public void store(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> stored = summaryRepository.findAllById(itemIds).stream()
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toSet());
+        for (ItemBookingSummary summary : calculate(itemIds, now).values()) {
+            if (!stored.contains(summary.getItemId())) {
+                summaryRepository.save(summary);
+                continue;
+            }
+            summaryRepository.updateIfStale(summary.getItemId(),
+                    summary.getLastBookingId(), summary.getLastBookerId(), summary.getLastStartTime(),
+                    summary.getNextBookingId(), summary.getNextBookerId(), summary.getNextStartTime(), now);
+        }
+    }
+
+    // Вызывается в транзакции изменения бронирования, когда вещь уже заблокирована.
+    public ItemBookingSummary recalculate(Long itemId, LocalDateTime now) {
+        ItemBookingSummary summary = summaryRepository.findById(itemId)
+                .orElseGet(() -> ItemBookingSummary.builder().itemId(itemId).build());
+        BookingShort last = bookingRepository.findLastBookings(itemId, BookingStatus.APPROVED, now, FIRST_BOOKING)
+                .stream()
+                .findFirst()
+                .orElse(null);
+        BookingShort next = bookingRepository.findNextBookings(itemId, BookingStatus.APPROVED, now, FIRST_BOOKING)
+                .stream()
+                .findFirst()
+                .orElse(null);
+        fill(summary, last, next);
+        return summaryRepository.save(summary);
+    }
+
+    // Если у вещи несколько бронирований с одним началом, берётся бронирование с меньшим id.
+    private static BookingShort startingAt(List<BookingShort> bookings, Long itemId, LocalDateTime startTime) {
+        if (startTime == null) {
+            return null;
+        }
+        return bookings.stream()
+                .filter(booking -> booking.getItemId().equals(itemId) && booking.getStartTime().equals(startTime))
+                .min(Comparator.comparingLong(BookingShort::getId))
+                .orElse(null);
+    }
+
+    private static void fill(ItemBookingSummary summary, BookingShort last, BookingShort next) {
+        summary.setLastBookingId(last == null ? null : last.getId());
+        summary.setLastBookerId(last == null ? null : last.getBookerId());
+        summary.setLastStartTime(last == null ? null : last.getStartTime());
+        summary.setNextBookingId(next == null ? null : next.getId());
+        summary.setNextBookerId(next == null ? null : next.getBookerId());
+        summary.setNextStartTime(next == null ? null : next.getStartTime());
+    }
+}
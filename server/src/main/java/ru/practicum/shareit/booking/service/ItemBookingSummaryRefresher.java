@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Сохраняет пересчитанные при чтении сводки в фоне, чтобы запрос на чтение не занимал второе соединение
+ * с основной базой. Вещи, уже стоящие в очереди, повторно не добавляются; при переполненной очереди
+ * пересчёт пропускается — сводка останется устаревшей, и её пересчитает следующее чтение.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaryRefresher implements DisposableBean {
+    private final ItemBookingSummaryCalculator itemBookingSummaryCalculator;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+
+    public ItemBookingSummaryRefresher(ItemBookingSummaryCalculator itemBookingSummaryCalculator,
+                                       @Value("${shareit.booking-summary.refresh-queue:1000}") int queueSize) {
+        this.itemBookingSummaryCalculator = itemBookingSummaryCalculator;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "booking-summary-refresher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public void refreshLater(Collection<Long> itemIds) {
+        List<Long> queued = itemIds.stream()
+                .filter(pending::add)
+                .collect(Collectors.toList());
+        if (queued.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> refresh(queued));
+        } catch (RejectedExecutionException e) {
+            pending.removeAll(queued);
+        }
+    }
+
+    private void refresh(List<Long> itemIds) {
+        try {
+            itemBookingSummaryCalculator.store(itemIds);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить сводки бронирований вещей {}: {}", itemIds, e.getMessage());
+        } finally {
+            pending.removeAll(itemIds);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryCalculator itemBookingSummaryCalculator;
+    private final ItemBookingSummaryRefresher itemBookingSummaryRefresher;
+
+    public void create(Long itemId) {
+        summaryRepository.save(ItemBookingSummary.builder()
+                .itemId(itemId)
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public ItemBookingSummary get(Long itemId) {
+        return get(List.of(itemId)).get(itemId);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingSummary> get(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> staleIds = itemIds.stream()
+                .filter(itemId -> summaries.get(itemId) == null || summaries.get(itemId).isStale(now))
+                .collect(Collectors.toList());
+        if (staleIds.isEmpty()) {
+            return summaries;
+        }
+        // Устаревшие сводки пересчитываются в текущей транзакции, а сохраняются в фоне.
+        summaries.putAll(itemBookingSummaryCalculator.calculate(staleIds, now));
+        itemBookingSummaryRefresher.refreshLater(staleIds);
+        return summaries;
+    }
+
+    // Вызывается после каскадного удаления бронирований пользователя, когда вещи уже заблокированы.
+    // Прошедшее последнее бронирование не делает сводку устаревшей, и без пересчёта она навсегда
+    // ссылалась бы на удалённую строку.
+    public void removeBooker(Long bookerId, Collection<Long> itemIds) {
+        List<Long> affectedIds = summaryRepository.findAllById(itemIds).stream()
+                .filter(summary -> bookerId.equals(summary.getLastBookerId())
+                        || bookerId.equals(summary.getNextBookerId()))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (affectedIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.saveAll(itemBookingSummaryCalculator.calculate(affectedIds, LocalDateTime.now()).values());
+    }
+
+    // Вызывается в транзакции изменения бронирования, когда вещь уже заблокирована.
+    public void update(Booking booking) {
+        if (booking.getStatus() != BookingStatus.APPROVED) {
+            return;
+        }
+        Long itemId = booking.getItem().getId();
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = summaryRepository.findById(itemId).orElse(null);
+        if (summary == null || summary.isStale(now)) {
+            itemBookingSummaryCalculator.recalculate(itemId, now);
+            return;
+        }
+
+        LocalDateTime startTime = booking.getStartTime();
+        if (startTime.isBefore(now)) {
+            if (summary.getLastStartTime() != null && !startTime.isAfter(summary.getLastStartTime())) {
+                return;
+            }
+            summary.setLastBookingId(booking.getId());
+            summary.setLastBookerId(booking.getBooker().getId());
+            summary.setLastStartTime(startTime);
+        } else if (startTime.isAfter(now)) {
+            if (summary.getNextStartTime() != null && !startTime.isBefore(summary.getNextStartTime())) {
+                return;
+            }
+            summary.setNextBookingId(booking.getId());
+            summary.setNextBookerId(booking.getBooker().getId());
+            summary.setNextStartTime(startTime);
+        } else {
+            return;
+        }
+        summaryRepository.save(summary);
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -41,10 +42,20 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> getItemByText(@RequestHeader(USER_ID) Long userId, @RequestParam (value = "text") String text,
-                                       @RequestParam(value = "from", defaultValue = "0") Integer start,
-                                       @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return itemService.getItemByText(userId, text, start, size);
+    public ResponseEntity<List<ItemDto>> getItemByText(@RequestHeader(USER_ID) Long userId,
+                                                       @RequestParam (value = "text") String text,
+                                                       @RequestParam(value = "after", required = false) String after,
+                                                       @RequestParam(value = "from", defaultValue = "0") Integer start,
+                                                       @RequestParam(value = "size", defaultValue = "10") Integer size) {
+        return itemService.getItemByText(userId, text, after, start, size).toResponse();
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
+                                                        @RequestParam(value = "after", required = false) String after,
+                                                        @RequestParam(value = "from", defaultValue = "0") Integer start,
+                                                        @RequestParam(value = "size", defaultValue = "10") Integer size) {
+        return itemService.getComments(userId, itemId, after, start, size).toResponse();
     }
 
     @PostMapping("/{itemId}/comment")
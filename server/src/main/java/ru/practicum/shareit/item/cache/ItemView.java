@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor
+public class ItemView {
+    private final Long ownerId;
+    private final ItemDto item;
+    private final LocalDateTime staleAt;
+
+    // Представление из кэша общее для всех читателей, поэтому наружу отдаётся копия.
+    public ItemDto getItem() {
+        return item.toBuilder()
+                .lastBooking(copy(item.getLastBooking()))
+                .nextBooking(copy(item.getNextBooking()))
+                .comments(item.getComments() == null ? null : item.getComments().stream()
+                        .map(ItemView::copy)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static BookingItemDto copy(BookingItemDto booking) {
+        return booking == null ? null : BookingItemDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
+
+    private static CommentDto copy(CommentDto comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.replica.ReplicaRoutingDataSource;
+import ru.practicum.shareit.transaction.TransactionHooks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+@Component
+public class ItemViewCache {
+    private static final String CACHE_NAME = "items";
+
+    private final Cache<Long, ItemView> cache;
+    private final boolean replicaEnabled;
+
+    public ItemViewCache(@Value("${shareit.cache.items.max-size:10000}") long maxSize,
+                         @Value("${shareit.cache.items.ttl:5m}") Duration ttl,
+                         @Value("${shareit.datasource.replica.url:}") String replicaUrl,
+                         MeterRegistry meterRegistry) {
+        this.replicaEnabled = !replicaUrl.isBlank();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ItemViewExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // Реплика может отставать, и прочитанное с неё представление жило бы в кэше до конца ttl у всех
+    // пользователей, поэтому кэш наполняется только чтениями с основной базы.
+    public ItemView get(Long itemId, Function<Long, ItemView> loader) {
+        if (replicaEnabled && ReplicaRoutingDataSource.isReplicaRoute()) {
+            ItemView cached = cache.getIfPresent(itemId);
+            return cached != null ? cached : loader.apply(itemId);
+        }
+        return cache.get(itemId, loader);
+    }
+
+    // Удаление до коммита позволило бы параллельному чтению снова положить в кэш старое представление.
+    public void invalidate(Long itemId) {
+        TransactionHooks.afterCommit(() -> cache.invalidate(itemId));
+    }
+
+    // Последнее и следующее бронирование меняются местами, когда наступает начало следующего,
+    // поэтому запись живёт не дольше этого момента.
+    private static final class ItemViewExpiry implements Expiry<Long, ItemView> {
+        private final Duration ttl;
+
+        private ItemViewExpiry(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public long expireAfterCreate(Long itemId, ItemView view, long currentTime) {
+            LocalDateTime now = LocalDateTime.now();
+            if (view.getStaleAt() == null || view.getStaleAt().isAfter(now.plus(ttl))) {
+                return ttl.toNanos();
+            }
+            return Math.max(0, Duration.between(now, view.getStaleAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemView view, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemView view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -7,7 +7,7 @@ import ru.practicum.shareit.booking.dto.BookingItemDto;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class ItemDto {
     private Long id;
     private String name;
@@ -17,4 +17,5 @@ public class ItemDto {
     private BookingItemDto lastBooking;
     private BookingItemDto nextBooking;
     private List<CommentDto> comments;
+    private Long commentCount;
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemShort {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+}
@@ -4,7 +4,6 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.ItemDtoForRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -42,7 +41,8 @@ public class ItemMapper {
     public ItemDto getItemDto(Item item,
                               BookingItemDto lastBooking,
                               BookingItemDto nextBooking,
-                              List<CommentDto> comments) {
+                              List<CommentDto> comments,
+                              Long commentCount) {
         return ItemDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -51,17 +51,8 @@ public class ItemMapper {
                 .lastBooking(lastBooking)
                 .nextBooking(nextBooking)
                 .comments(comments)
+                .commentCount(commentCount)
                 .requestId(item.getRequest() == null ? null : item.getRequest().getId())
                 .build();
     }
-
-    public ItemDtoForRequest getItemDtoForRequest(Item item) {
-        return ItemDtoForRequest.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .requestId(item.getRequest().getId())
-                .build();
-    }
 }
@@ -1,10 +1,45 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentCount;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(long itemId);
+    long countByItemId(long itemId);
+
+    @Query("SELECT c.item.id AS itemId, count(c.id) AS total " +
+            "FROM Comment c " +
+            "WHERE c.item.id IN ?1 " +
+            "GROUP BY c.item.id")
+    List<CommentCount> countByItemIdIn(Collection<Long> itemIds);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment c " +
+            "WHERE c.author.id = ?1")
+    List<Long> findItemIdsCommentedBy(long authorId);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id = ?1 " +
+            "AND (c.created < ?2 OR (c.created = ?2 AND c.id < ?3)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> readItemComments(long itemId, LocalDateTime afterCreated, long afterId, Pageable pageable);
+
+    @Query(value = "SELECT ranked.id FROM (" +
+            "SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS rn " +
+            "FROM comments c " +
+            "WHERE c.item_id IN ?1) ranked " +
+            "WHERE ranked.rn <= ?2", nativeQuery = true)
+    List<Long> findLatestIds(Collection<Long> itemIds, int limit);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.id IN ?1 " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findAllByIdIn(Collection<Long> ids);
 }
@@ -4,20 +4,55 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.item.dto.ItemShort;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    // Производный запрос findAllByOwnerId присоединяет users и фильтрует по users.id, из-за чего items
+    // читается целиком; условие по внешнему ключу использует индекс idx_items_owner.
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.owner.id = ?1 " +
+            "ORDER BY i.id")
     List<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
 
-    List<Item> findAllByOwnerId(Long ownerId);
+    @Query("SELECT i.id FROM Item i " +
+            "WHERE i.available = true " +
+            "AND i.id > ?2 " +
+            "AND (upper(i.name) LIKE upper(concat('%', ?1, '%')) " +
+            "OR upper(i.description) LIKE upper(concat('%', ?1, '%'))) " +
+            "ORDER BY i.id")
+    List<Long> findItemIdsByText(String text, long afterId, Pageable pageable);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE upper(i.name) LIKE upper(concat('%', ?1, '%')) " +
-            "OR upper(i.description) LIKE upper(concat('%', ?1, '%'))")
-    List<Item> findItemByText(String text, Pageable pageable);
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available " +
+            "FROM Item i " +
+            "WHERE i.id > ?1 " +
+            "ORDER BY i.id")
+    List<ItemShort> readItemsAfter(long id, Pageable pageable);
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available " +
+            "FROM Item i " +
+            "WHERE i.id = ?1")
+    Optional<ItemShort> readItem(long id);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDtoForRequest(" +
+            "i.id, i.name, i.description, i.request.id, i.available) " +
+            "FROM Item i " +
+            "WHERE i.request.id IN ?1 " +
+            "ORDER BY i.id")
+    List<ItemDtoForRequest> findAllForRequests(Collection<Long> requestIds);
+
+    // Вещи, которые удалятся каскадом вместе с пользователем: его собственные и созданные по его запросам.
+    @Query("SELECT i.id FROM Item i " +
+            "LEFT JOIN i.request r " +
+            "WHERE i.owner.id = ?1 OR r.requestor.id = ?1")
+    List<Long> findIdsDeletedWithUser(long userId);
 
-    List<Item> findAllByRequestId(Long requestId);
+    @Query(value = "SELECT id FROM items WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(Long id);
 }
@@ -0,0 +1,381 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemShort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.Cursors;
+import ru.practicum.shareit.transaction.TransactionHooks;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int NAME_MATCH_SCORE = 4;
+    private static final int DESCRIPTION_MATCH_SCORE = 1;
+    private static final int NAME_PREFIX_SCORE = 1;
+    private static final int TOKEN_MATCH_SCORE = 2;
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::getScore).reversed()
+            .thenComparingLong(Hit::getItemId);
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object refreshLock = new Object();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, Postings> grams = new HashMap<>();
+    private final Map<String, Postings> tokens = new HashMap<>();
+
+    @PostConstruct
+    public void load() {
+        long lastId = 0;
+        List<ItemShort> batch;
+        do {
+            batch = itemRepository.readItemsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ItemShort item : batch) {
+                apply(toDocument(item));
+                lastId = item.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Индекс поиска построен, вещей: {}", ordinals.size());
+    }
+
+    // Индекс, изменённый до коммита, при откате оказался бы впереди базы.
+    @Override
+    public void index(Item item) {
+        long itemId = item.getId();
+        TransactionHooks.afterCommit(() -> refresh(itemId));
+    }
+
+    @Override
+    public void remove(long itemId) {
+        TransactionHooks.afterCommit(() -> refresh(itemId));
+    }
+
+    @Override
+    public CursorPage<Long> search(String text, String after, int from, int size) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return CursorPage.empty();
+        }
+        Hit cursor = null;
+        int offset = from;
+        if (after != null) {
+            long[] values = Cursors.decode(after, 2);
+            cursor = new Hit(values[1], (int) values[0]);
+            offset = 0;
+        }
+        int limit = offset + size;
+        PriorityQueue<Hit> best = new PriorityQueue<>(RANKING.reversed());
+
+        lock.readLock().lock();
+        try {
+            Postings tokenPostings = tokens.get(query);
+            for (int ordinal : findCandidates(query)) {
+                Document document = documents.get(ordinal);
+                if (!document.available) {
+                    continue;
+                }
+                int score = document.score(query);
+                if (score == 0) {
+                    continue;
+                }
+                if (tokenPostings != null && tokenPostings.contains(ordinal)) {
+                    score += TOKEN_MATCH_SCORE;
+                }
+                Hit hit = new Hit(document.itemId, score);
+                if (cursor != null && RANKING.compare(hit, cursor) <= 0) {
+                    continue;
+                }
+                best.add(hit);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = offset; i < hits.size(); i++) {
+            itemIds.add(hits.get(i).getItemId());
+        }
+        if (itemIds.size() < size) {
+            return new CursorPage<>(itemIds, null);
+        }
+        Hit last = hits.get(hits.size() - 1);
+        return new CursorPage<>(itemIds, Cursors.encode(last.getScore(), last.getItemId()));
+    }
+
+    // Обработчики после коммита двух транзакций могут выполниться в обратном порядке, поэтому вещь
+    // перечитывается из базы, а не берётся снимок до коммита. Чтение и применение идут под одной блокировкой:
+    // последний обработчик начинает чтение после всех коммитов и оставляет в индексе последнюю версию.
+    private void refresh(long itemId) {
+        synchronized (refreshLock) {
+            itemRepository.readItem(itemId)
+                    .ifPresentOrElse(item -> apply(toDocument(item)), () -> delete(itemId));
+        }
+    }
+
+    // Новая версия вещи занимает тот же номер, что и старая, и меняются только списки отличающихся грамм,
+    // поэтому размер индекса зависит от числа вещей, а не от числа изменений.
+    private void apply(Document document) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(document.itemId);
+            Document previous = null;
+            if (ordinal == null) {
+                ordinal = freeOrdinals.isEmpty() ? documents.size() : freeOrdinals.pop();
+                ordinals.put(document.itemId, ordinal);
+                if (ordinal == documents.size()) {
+                    documents.add(document);
+                } else {
+                    documents.set(ordinal, document);
+                }
+            } else {
+                previous = documents.set(ordinal, document);
+            }
+            Set<String> previousGrams = previous == null ? Set.of() : previous.grams();
+            Set<String> previousTokens = previous == null ? Set.of() : previous.tokens();
+            update(grams, ordinal, previousGrams, document.grams());
+            update(tokens, ordinal, previousTokens, document.tokens());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void delete(long itemId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(itemId);
+            if (ordinal == null) {
+                return;
+            }
+            Document previous = documents.set(ordinal, null);
+            update(grams, ordinal, previous.grams(), Set.of());
+            update(tokens, ordinal, previous.tokens(), Set.of());
+            freeOrdinals.push(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void update(Map<String, Postings> index, int ordinal, Set<String> previous, Set<String> current) {
+        for (String key : previous) {
+            if (!current.contains(key)) {
+                Postings postings = index.get(key);
+                postings.remove(ordinal);
+                if (postings.size() == 0) {
+                    index.remove(key);
+                }
+            }
+        }
+        for (String key : current) {
+            if (!previous.contains(key)) {
+                index.computeIfAbsent(key, k -> new Postings()).add(ordinal);
+            }
+        }
+    }
+
+    // Запросы не длиннее GRAM_LENGTH совпадают с одной граммой целиком. Для длинных кандидаты ищутся
+    // пересечением списков триграмм и затем проверяются на вхождение подстроки, поэтому результат
+    // совпадает с LIKE-запросом без учёта регистра.
+    private int[] findCandidates(String query) {
+        if (query.length() <= GRAM_LENGTH) {
+            Postings postings = grams.get(query);
+            return postings == null ? new int[0] : postings.toArray();
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : trigramsOf(query)) {
+            Postings postings = grams.get(gram);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        int[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            Postings postings = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < count; j++) {
+                if (postings.contains(candidates[j])) {
+                    candidates[kept++] = candidates[j];
+                }
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private static Document toDocument(ItemShort item) {
+        return new Document(item.getId(), normalize(item.getName()), normalize(item.getDescription()),
+                Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    // Все подстроки длиной от 1 до GRAM_LENGTH: короткие нужны для запросов из одного-двух символов.
+    private static void addGrams(String text, Set<String> result) {
+        for (int i = 0; i < text.length(); i++) {
+            for (int length = 1; length <= GRAM_LENGTH && i + length <= text.length(); length++) {
+                result.add(text.substring(i, i + length));
+            }
+        }
+    }
+
+    private static Set<String> tokensOf(String text) {
+        Set<String> words = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static final class Document {
+        private final long itemId;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        private Document(long itemId, String name, String description, boolean available) {
+            this.itemId = itemId;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+
+        private int score(String query) {
+            int score = 0;
+            if (name.contains(query)) {
+                score += NAME_MATCH_SCORE;
+                if (name.startsWith(query)) {
+                    score += NAME_PREFIX_SCORE;
+                }
+            }
+            if (description.contains(query)) {
+                score += DESCRIPTION_MATCH_SCORE;
+            }
+            return score;
+        }
+
+        private Set<String> grams() {
+            Set<String> result = new HashSet<>();
+            addGrams(name, result);
+            addGrams(description, result);
+            return result;
+        }
+
+        private Set<String> tokens() {
+            Set<String> words = tokensOf(name);
+            words.addAll(tokensOf(description));
+            return words;
+        }
+    }
+
+    // Отсортированный список номеров документов. Новые номера обычно больше всех прежних и добавляются
+    // в конец; освобождённые номера вставляются на своё место.
+    private static final class Postings {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            int position = size == 0 || values[size - 1] < ordinal ? size
+                    : -Arrays.binarySearch(values, 0, size, ordinal) - 1;
+            if (position < 0) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = ordinal;
+            size++;
+        }
+
+        private void remove(int ordinal) {
+            int position = Arrays.binarySearch(values, 0, size, ordinal);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(values, position + 1, values, position, size - position - 1);
+            size--;
+            if (values.length > 4 && size * 4 < values.length) {
+                values = Arrays.copyOf(values, values.length / 2);
+            }
+        }
+
+        private boolean contains(int ordinal) {
+            return Arrays.binarySearch(values, 0, size, ordinal) >= 0;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class Hit {
+        private final long itemId;
+        private final int score;
+
+        private Hit(long itemId, int score) {
+            this.itemId = itemId;
+            this.score = score;
+        }
+
+        private long getItemId() {
+            return itemId;
+        }
+
+        private int getScore() {
+            return score;
+        }
+    }
+}
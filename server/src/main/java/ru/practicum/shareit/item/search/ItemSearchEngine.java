@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+
+public interface ItemSearchEngine {
+    void index(Item item);
+
+    void remove(long itemId);
+
+    CursorPage<Long> search(String text, @Nullable String after, int from, int size);
+}
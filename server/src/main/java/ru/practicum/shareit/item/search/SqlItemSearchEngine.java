@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.Cursors;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "sql")
+public class SqlItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(long itemId) {
+    }
+
+    @Override
+    public CursorPage<Long> search(String text, String after, int from, int size) {
+        List<Long> itemIds;
+        if (after == null) {
+            itemIds = itemRepository.findItemIdsByText(text, 0L, new OffsetPageRequest(from, size));
+        } else {
+            long afterId = Cursors.decode(after, 1)[0];
+            itemIds = itemRepository.findItemIdsByText(text, afterId, new OffsetPageRequest(0, size));
+        }
+        String next = itemIds.size() == size ? Cursors.encode(itemIds.get(itemIds.size() - 1)) : null;
+        return new CursorPage<>(itemIds, next);
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -14,7 +15,9 @@ public interface ItemService {
 
     ItemDto update(Long userId, Long id, ItemDto itemDto);
 
-    List<ItemDto> getItemByText(Long userId, String text, Integer start, Integer size);
+    CursorPage<ItemDto> getItemByText(Long userId, String text, String after, Integer start, Integer size);
+
+    CursorPage<CommentDto> getComments(Long userId, Long itemId, String after, Integer start, Integer size);
 
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
 }
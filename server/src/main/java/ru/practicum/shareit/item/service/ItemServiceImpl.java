@@ -4,13 +4,19 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ItemAvailabilityException;
 import ru.practicum.shareit.exception.WrongAccesException;
+import ru.practicum.shareit.item.cache.ItemView;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.dto.CommentCount;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -19,29 +25,45 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.directory.UserDirectory;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final Pageable LATEST_COMMENTS = PageRequest.of(0, 10);
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemViewCache itemViewCache;
+    private final UserDirectory userDirectory;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final BookingMapper bookingMapper;
 
     @Override
+    @Transactional
     public ItemDto create(Long userId, ItemDto itemDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
@@ -49,85 +71,124 @@ public class ItemServiceImpl implements ItemService {
                 itemRequestRepository.findById(itemDto.getRequestId()).orElse(null) : null;
         Item item = itemMapper.createItemFromDto(itemDto, itemRequest);
         item.setOwner(user);
-        return itemMapper.getItemDto(itemRepository.save(item), null, null, null);
+        item = itemRepository.save(item);
+        itemBookingSummaryService.create(item.getId());
+        itemSearchEngine.index(item);
+        return itemMapper.getItemDto(item, null, null, null, null);
     }
 
     @Override
     public List<ItemDto> getItems(Long userId, Integer start, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
+        userDirectory.requireExists(userId);
         Pageable pageable = PageRequest.of(start / size, size);
-        return itemRepository.findAllByOwnerId(userId, pageable).stream()
-                .map(item -> {
-                    Booking lastBooking = findLastBooking(item.getId());
-                    Booking nextBooking = findNextBooking(item.getId());
-                    return itemMapper.getItemDto(item,
-                            bookingMapper.createBookingItemDto(lastBooking),
-                            bookingMapper.createBookingItemDto(nextBooking),
-                            findComments(item.getId()));
-                })
+        List<Item> items = itemRepository.findAllByOwnerId(userId, pageable);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.get(itemIds);
+        Map<Long, List<CommentDto>> comments = findComments(itemIds);
+        Map<Long, Long> commentCounts = countComments(itemIds);
+
+        return items.stream()
+                .map(item -> itemMapper.getItemDto(item,
+                        bookingMapper.createLastBookingItemDto(summaries.get(item.getId())),
+                        bookingMapper.createNextBookingItemDto(summaries.get(item.getId())),
+                        comments.getOrDefault(item.getId(), List.of()),
+                        commentCounts.getOrDefault(item.getId(), 0L)))
                 .sorted(Comparator.comparingLong(ItemDto::getId))
                 .collect(Collectors.toList());
     }
 
     @Override
     public ItemDto getItemById(Long userId, Long id) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
-        Item item = itemRepository.findById(id)
-                        .orElseThrow(() -> new DataNotFoundException("Вещи с id=" + id + " нет."));
+        userDirectory.requireExists(userId);
+        ItemView view = itemViewCache.get(id, this::loadItemView);
 
-        if (userId.equals(item.getOwner().getId())) {
-            Booking lastBooking = findLastBooking(id);
-            Booking nextBooking = findNextBooking(id);
-
-            return itemMapper.getItemDto(item,
-                    bookingMapper.createBookingItemDto(lastBooking),
-                    bookingMapper.createBookingItemDto(nextBooking),
-                    findComments(id));
+        if (userId.equals(view.getOwnerId())) {
+            return view.getItem();
         }
 
-        return itemMapper.getItemDto(item,
-                null,
-                null,
-                findComments(id));
+        return view.getItem().toBuilder()
+                .lastBooking(null)
+                .nextBooking(null)
+                .build();
     }
 
     @Override
+    @Transactional
     public ItemDto update(Long userId, Long id, ItemDto itemDto) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
+        userDirectory.requireExists(userId);
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new DataNotFoundException("Вещи с id=" + id + " нет."));
         if (!userId.equals(item.getOwner().getId())) {
             throw new WrongAccesException("У вещи с id=" + id + " другой владелец.");
         }
-        item = itemMapper.updateItemFromDto(item, itemDto);
+        item = itemRepository.save(itemMapper.updateItemFromDto(item, itemDto));
+        itemSearchEngine.index(item);
+        itemViewCache.invalidate(id);
 
-        return itemMapper.getItemDto(itemRepository.save(item),
-                bookingMapper.createBookingItemDto(findLastBooking(id)),
-                bookingMapper.createBookingItemDto(findNextBooking(id)),
-                findComments(id));
+        ItemBookingSummary summary = itemBookingSummaryService.get(id);
+        return itemMapper.getItemDto(item,
+                bookingMapper.createLastBookingItemDto(summary),
+                bookingMapper.createNextBookingItemDto(summary),
+                findComments(id),
+                commentRepository.countByItemId(id));
     }
 
     @Override
-    public List<ItemDto> getItemByText(Long userId, String text, Integer start, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
+    public CursorPage<ItemDto> getItemByText(Long userId, String text, String after, Integer start, Integer size) {
+        userDirectory.requireExists(userId);
         if (text.isBlank()) {
-            return List.of();
+            return CursorPage.empty();
         }
-        Pageable pageable = PageRequest.of(start / size, size);
-        return itemRepository.findItemByText(text, pageable).stream()
-                .filter(Item::getAvailable)
+        CursorPage<Long> page = itemSearchEngine.search(text, after, start, size);
+        if (page.getItems().isEmpty()) {
+            return CursorPage.empty();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(page.getItems()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<CommentDto>> comments = findComments(page.getItems());
+        Map<Long, Long> commentCounts = countComments(page.getItems());
+
+        // Вещь могла быть удалена между поиском и загрузкой, такие id пропускаются.
+        List<ItemDto> found = page.getItems().stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .map(item -> itemMapper.getItemDto(item,
-                            null,
-                            null,
-                            findComments(item.getId())))
+                        null,
+                        null,
+                        comments.getOrDefault(item.getId(), List.of()),
+                        commentCounts.getOrDefault(item.getId(), 0L)))
                 .collect(Collectors.toList());
+        return new CursorPage<>(found, page.getNext());
     }
 
     @Override
+    public CursorPage<CommentDto> getComments(Long userId, Long itemId, String after, Integer start, Integer size) {
+        userDirectory.requireExists(userId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new DataNotFoundException("Вещи с id=" + itemId + " нет.");
+        }
+        TimeCursor cursor = TimeCursor.decode(after);
+        List<Comment> comments = commentRepository.readItemComments(itemId, cursor.getTime(), cursor.getId(),
+                new OffsetPageRequest(after == null ? start : 0, size));
+
+        List<CommentDto> commentDtos = comments.stream()
+                .map(commentMapper::getCommentDto)
+                .collect(Collectors.toList());
+        if (comments.size() < size) {
+            return new CursorPage<>(commentDtos, null);
+        }
+        Comment last = comments.get(comments.size() - 1);
+        return new CursorPage<>(commentDtos, TimeCursor.encode(last.getCreated(), last.getId()));
+    }
+
+    @Override
+    @Transactional
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
@@ -147,33 +208,47 @@ public class ItemServiceImpl implements ItemService {
 
         commentDto.setCreated(LocalDateTime.now());
         Comment comment = commentMapper.createCommentFromDto(commentDto, item, user);
-        return commentMapper.getCommentDto(commentRepository.save(comment));
+        CommentDto savedComment = commentMapper.getCommentDto(commentRepository.save(comment));
+        itemViewCache.invalidate(itemId);
+        return savedComment;
     }
 
-    private Booking findLastBooking(Long itemId) {
-        List<Booking> itemBookings = bookingRepository.findAllByItemId(itemId);
-
-        return itemBookings.stream()
-                .filter(booking -> booking.getStartTime().isBefore(LocalDateTime.now()))
-                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
-                .max(Comparator.comparing(Booking::getEndTime))
-                .orElse(null);
-    }
-
-    private Booking findNextBooking(Long itemId) {
-        List<Booking> itemBookings = bookingRepository.findAllByItemId(itemId);
-
-        return itemBookings.stream()
-                .filter(booking -> booking.getStartTime().isAfter(LocalDateTime.now()))
-                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
-                .min(Comparator.comparing(Booking::getStartTime))
-                .orElse(null);
+    private ItemView loadItemView(Long id) {
+        Item item = itemRepository.findById(id)
+                .orElseThrow(() -> new DataNotFoundException("Вещи с id=" + id + " нет."));
+        ItemBookingSummary summary = itemBookingSummaryService.get(id);
+
+        return new ItemView(item.getOwner().getId(),
+                itemMapper.getItemDto(item,
+                        bookingMapper.createLastBookingItemDto(summary),
+                        bookingMapper.createNextBookingItemDto(summary),
+                        findComments(id),
+                        commentRepository.countByItemId(id)),
+                summary.getNextStartTime());
     }
 
     private List<CommentDto> findComments(long itemId) {
-        return commentRepository.findAllByItemId(itemId)
+        TimeCursor first = TimeCursor.first();
+        return commentRepository.readItemComments(itemId, first.getTime(), first.getId(), LATEST_COMMENTS)
                 .stream()
                 .map(commentMapper::getCommentDto)
                 .collect(Collectors.toList());
     }
+
+    private Map<Long, List<CommentDto>> findComments(List<Long> itemIds) {
+        List<Long> commentIds = commentRepository.findLatestIds(itemIds, LATEST_COMMENTS.getPageSize());
+        if (commentIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findAllByIdIn(commentIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::getCommentDto, Collectors.toList())));
+    }
+
+    private Map<Long, Long> countComments(List<Long> itemIds) {
+        return commentRepository.countByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.toMap(CommentCount::getItemId, CommentCount::getTotal));
+    }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Locale;
+import java.util.Set;
+
+// Состояние приходит от клиента как строка, поэтому в тег попадают только известные значения.
+@UtilityClass
+public class BookingStateTag {
+    public static final String NAME = "state";
+
+    private static final String NONE = "none";
+    private static final String UNSUPPORTED = "UNSUPPORTED";
+    private static final Set<String> STATES = Set.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
+    public static String valueOf(String state) {
+        if (state == null) {
+            return NONE;
+        }
+        String normalized = state.toUpperCase(Locale.ROOT);
+        return STATES.contains(normalized) ? normalized : UNSUPPORTED;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Внешний по отношению к транзакции совет: в замер входит и фиксация транзакции.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    public static final String METRIC_NAME = "shareit.service";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit..service.*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Время выполнения методов сервисов")
+                    .tag("service", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag(BookingStateTag.NAME, BookingStateTag.valueOf(findState(signature, joinPoint.getArgs())))
+                    .tag("outcome", "none".equals(exception) ? "SUCCESS" : "ERROR")
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private String findState(MethodSignature signature, Object[] args) {
+        String[] names = signature.getParameterNames();
+        if (names == null) {
+            return null;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (BookingStateTag.NAME.equals(names[i]) && args[i] instanceof String) {
+                return (String) args[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.constant.CustomHeaders.NEXT_CURSOR;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String next;
+
+    public static <T> CursorPage<T> empty() {
+        return new CursorPage<>(List.of(), null);
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).collect(Collectors.toList()), next);
+    }
+
+    public ResponseEntity<List<T>> toResponse() {
+        if (next == null) {
+            return ResponseEntity.ok(items);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, next)
+                .body(items);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.exception.WrongCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+@UtilityClass
+public class Cursors {
+    private static final String SEPARATOR = ":";
+
+    public String encode(long... values) {
+        String raw = Arrays.stream(values)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long[] decode(String cursor, int length) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            long[] values = Arrays.stream(raw.split(SEPARATOR))
+                    .mapToLong(Long::parseLong)
+                    .toArray();
+            if (values.length != length) {
+                throw new WrongCursorException("Некорректный курсор: " + cursor);
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new WrongCursorException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+@Getter
+@AllArgsConstructor
+public class TimeCursor {
+    private static final TimeCursor FIRST = new TimeCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    private final LocalDateTime time;
+    private final long id;
+
+    public static TimeCursor first() {
+        return FIRST;
+    }
+
+    public static TimeCursor decode(String cursor) {
+        if (cursor == null) {
+            return FIRST;
+        }
+        long[] values = Cursors.decode(cursor, 3);
+        return new TimeCursor(LocalDateTime.ofEpochSecond(values[0], (int) values[1], ZoneOffset.UTC), values[2]);
+    }
+
+    public static String encode(LocalDateTime time, long id) {
+        return Cursors.encode(time.toEpochSecond(ZoneOffset.UTC), time.getNano(), id);
+    }
+}
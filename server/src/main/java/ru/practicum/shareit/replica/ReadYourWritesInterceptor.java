@@ -0,0 +1,69 @@
+package ru.practicum.shareit.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+import static ru.practicum.shareit.constant.CustomHeaders.USER_ID;
+
+// После изменения пользователь какое-то время читает с основной базы,
+// чтобы не получить с отстающей реплики данные без собственной записи.
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(@Value("${shareit.datasource.replica.read-your-writes:0s}") Duration window,
+                                     @Value("${shareit.datasource.replica.read-your-writes-max-users:100000}")
+                                     long maxUsers) {
+        this.recentWriters = window.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = getUserId(request);
+        if (recentWriters != null && userId != null && recentWriters.getIfPresent(userId) != null) {
+            RoutingContext.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        try {
+            Long userId = getUserId(request);
+            if (recentWriters != null && userId != null && isWrite(request) && ex == null
+                    && response.getStatus() < 400) {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        } finally {
+            RoutingContext.clear();
+        }
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    private Long getUserId(HttpServletRequest request) {
+        String header = request.getHeader(USER_ID);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
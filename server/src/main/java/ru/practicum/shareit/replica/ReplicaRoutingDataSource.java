@@ -0,0 +1,32 @@
+package ru.practicum.shareit.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Источник выбирается при первом запросе к базе, поэтому снаружи нужен LazyConnectionDataSourceProxy:
+// к этому моменту признак readOnly текущей транзакции уже выставлен.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return isReplicaRoute() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    // Пойдёт ли текущая транзакция на реплику, если реплика настроена.
+    public static boolean isReplicaRoute() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !RoutingContext.isPinnedToPrimary();
+    }
+}
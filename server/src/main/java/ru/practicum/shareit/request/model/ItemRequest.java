@@ -1,12 +1,10 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Entity
 @Table(name = "requests")
@@ -26,11 +24,8 @@ public class ItemRequest {
     @Column(nullable = false)
     private LocalDateTime created;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id", referencedColumnName = "id")
     @ToString.Exclude
     private User requestor;
-
-    @Transient
-    private List<Item> items;
 }
@@ -2,11 +2,14 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id = ?1")
     List<ItemRequest> findAllByRequestorId(Long requestorId);
 
     List<ItemRequest> findAllByRequestorIdNot(Long requestorId, Pageable pageable);
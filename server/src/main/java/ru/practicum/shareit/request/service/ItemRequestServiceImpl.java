@@ -5,33 +5,37 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoForRequest;
-import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoForRequestor;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.directory.UserDirectory;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final ItemRequestMapper itemRequestMapper;
-    private final ItemMapper itemMapper;
+    private final UserDirectory userDirectory;
 
 
     @Override
+    @Transactional
     public ItemRequestDto create(Long requestorId, ItemRequestDto itemRequestDto) {
         User user = userRepository.findById(requestorId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + requestorId + " не найден."));
@@ -42,37 +46,37 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDtoForRequestor> getRequests(Long requestorId) {
-        userRepository.findById(requestorId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + requestorId + " не найден."));
-        return itemRequestRepository.findAllByRequestorId(requestorId).stream()
-                .map(itemRequest -> itemRequestMapper
-                        .getRequestDtoForRequestor(itemRequest, getItemDtosForRequest(itemRequest)))
-                .collect(Collectors.toList());
+        userDirectory.requireExists(requestorId);
+        return getRequestDtosWithItems(itemRequestRepository.findAllByRequestorId(requestorId));
     }
 
     @Override
     public List<ItemRequestDtoForRequestor> getRequestsByPage(Long userId, Integer start, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
+        userDirectory.requireExists(userId);
         Pageable pageable = PageRequest.of(start / size, size, Sort.by("created").descending());
-        return itemRequestRepository.findAllByRequestorIdNot(userId, pageable).stream()
-                .map(itemRequest -> itemRequestMapper
-                        .getRequestDtoForRequestor(itemRequest, getItemDtosForRequest(itemRequest)))
-                .collect(Collectors.toList());
+        return getRequestDtosWithItems(itemRequestRepository.findAllByRequestorIdNot(userId, pageable));
     }
 
     @Override
     public ItemRequestDtoForRequestor getRequestById(Long userId, Long requestId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + userId + " не найден."));
+        userDirectory.requireExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new DataNotFoundException("Запрос с id=" + requestId + " не найден."));
-        return itemRequestMapper.getRequestDtoForRequestor(itemRequest, getItemDtosForRequest(itemRequest));
+        return getRequestDtosWithItems(List.of(itemRequest)).get(0);
     }
 
-    private List<ItemDtoForRequest> getItemDtosForRequest(ItemRequest itemRequest) {
-        return itemRepository.findAllByRequestId(itemRequest.getId()).stream()
-                .map(itemMapper::getItemDtoForRequest)
+    private List<ItemRequestDtoForRequestor> getRequestDtosWithItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDtoForRequest>> items = itemRepository.findAllForRequests(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDtoForRequest::getRequestId));
+        return itemRequests.stream()
+                .map(itemRequest -> itemRequestMapper.getRequestDtoForRequestor(itemRequest,
+                        items.getOrDefault(itemRequest.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.transaction;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@UtilityClass
+public class TransactionHooks {
+    // Изменения памяти, которые должны совпадать с базой, внутри транзакции применяются после коммита:
+    // при откате они не происходят, а параллельные читатели до коммита видят прежнее состояние.
+    public void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
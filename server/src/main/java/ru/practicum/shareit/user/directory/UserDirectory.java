@@ -0,0 +1,144 @@
+package ru.practicum.shareit.user.directory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.transaction.TransactionHooks;
+import ru.practicum.shareit.user.dto.UserShort;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDirectory {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet ids = new BitSet();
+    private final Map<String, Long> emails = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        long lastId = 0;
+        List<UserShort> batch;
+        do {
+            batch = userRepository.readUsersAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (UserShort user : batch) {
+                put(user.getId(), user.getEmail());
+                lastId = user.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Справочник пользователей загружен, пользователей: {}", emails.size());
+    }
+
+    public void requireExists(Long userId) {
+        if (!exists(userId)) {
+            throw new DataNotFoundException("Пользователь с id=" + userId + " не найден.");
+        }
+    }
+
+    // Отрицательный ответ перепроверяется в базе: пользователь мог быть создан другим экземпляром сервера.
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (userId > 0 && userId <= Integer.MAX_VALUE) {
+            lock.readLock().lock();
+            try {
+                if (ids.get(userId.intValue())) {
+                    return true;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return userRepository.findById(userId)
+                .map(user -> {
+                    add(user);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    // Совпадение перепроверяется в базе, чтобы устаревшая запись не блокировала освободившийся email.
+    public boolean isEmailTaken(String email, Long exceptUserId) {
+        if (email == null) {
+            return false;
+        }
+        Long ownerId = emails.get(email);
+        if (ownerId == null || ownerId.equals(exceptUserId)) {
+            return false;
+        }
+        boolean taken = userRepository.findById(ownerId)
+                .map(user -> email.equals(user.getEmail()))
+                .orElse(false);
+        if (!taken) {
+            emails.remove(email, ownerId);
+        }
+        return taken;
+    }
+
+    // Справочник, изменённый до коммита, при откате оказался бы впереди базы, а удалённый до коммита
+    // пользователь вернулся бы в него через перепроверку в exists().
+    public void add(User user) {
+        Long userId = user.getId();
+        String email = user.getEmail();
+        TransactionHooks.afterCommit(() -> put(userId, email));
+    }
+
+    public void update(String previousEmail, User user) {
+        Long userId = user.getId();
+        String email = user.getEmail();
+        TransactionHooks.afterCommit(() -> {
+            if (previousEmail != null && !previousEmail.equals(email)) {
+                emails.remove(previousEmail, userId);
+            }
+            put(userId, email);
+        });
+    }
+
+    public void remove(User user) {
+        Long userId = user.getId();
+        String email = user.getEmail();
+        TransactionHooks.afterCommit(() -> delete(userId, email));
+    }
+
+    private void delete(Long userId, String email) {
+        emails.remove(email, userId);
+        if (userId > 0 && userId <= Integer.MAX_VALUE) {
+            lock.writeLock().lock();
+            try {
+                ids.clear(userId.intValue());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void put(Long userId, String email) {
+        if (email != null) {
+            emails.put(email, userId);
+        }
+        if (userId > 0 && userId <= Integer.MAX_VALUE) {
+            lock.writeLock().lock();
+            try {
+                ids.set(userId.intValue());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
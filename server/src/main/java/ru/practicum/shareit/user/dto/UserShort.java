@@ -0,0 +1,7 @@
+package ru.practicum.shareit.user.dto;
+
+public interface UserShort {
+    Long getId();
+
+    String getEmail();
+}
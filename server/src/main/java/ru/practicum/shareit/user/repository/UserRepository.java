@@ -1,9 +1,16 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.dto.UserShort;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("SELECT u.id AS id, u.email AS email FROM User u WHERE u.id > ?1 ORDER BY u.id")
+    List<UserShort> readUsersAfter(long id, Pageable pageable);
 }
@@ -2,21 +2,40 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.DuplicateEmailException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.directory.UserDirectory;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserDirectory userDirectory;
+    private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemViewCache itemViewCache;
+    private final ItemBookingSummaryService itemBookingSummaryService;
 
     @Override
     public List<UserDto> getUsers() {
@@ -30,26 +49,59 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto create(UserDto userDto) {
-        User user = userMapper.createUserFromDto(userDto);
-        return userMapper.getUserDto(userRepository.save(user));
+        checkEmail(userDto.getEmail(), null);
+        User user = userRepository.save(userMapper.createUserFromDto(userDto));
+        userDirectory.add(user);
+        return userMapper.getUserDto(user);
     }
 
     @Override
+    @Transactional
     public UserDto update(Long id, UserDto userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + id + " не найден."));
+        checkEmail(userDto.getEmail(), id);
 
-        user = userMapper.updateUserFromDto(user, userDto);
-        return userMapper.getUserDto(userRepository.save(user));
+        String previousEmail = user.getEmail();
+        user = userRepository.save(userMapper.updateUserFromDto(user, userDto));
+        userDirectory.update(previousEmail, user);
+        return userMapper.getUserDto(user);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с id=" + id + " не найден."));
 
+        List<Long> itemIds = itemRepository.findIdsDeletedWithUser(id);
+        List<Long> bookedItemIds = bookingRepository.findItemIdsBookedBy(id);
+        // Бронирования и отзывы пользователя удаляются каскадом и пропадают из представлений чужих вещей.
+        Set<Long> viewIds = new HashSet<>(itemIds);
+        viewIds.addAll(bookedItemIds);
+        viewIds.addAll(commentRepository.findItemIdsCommentedBy(id));
+
+        // Сводки бронирований оставшихся вещей пересчитываются после удаления. Вещи блокируются до него
+        // и по возрастанию id: изменение бронирования тоже сначала блокирует вещь, а потом строку бронирования.
+        List<Long> summaryIds = bookedItemIds.stream()
+                .filter(itemId -> !itemIds.contains(itemId))
+                .sorted()
+                .collect(Collectors.toList());
+        summaryIds.forEach(itemRepository::lockById);
         userRepository.deleteById(id);
+        userRepository.flush();
+        itemBookingSummaryService.removeBooker(id, summaryIds);
+        userDirectory.remove(user);
+        itemIds.forEach(itemSearchEngine::remove);
+        viewIds.forEach(itemViewCache::invalidate);
+    }
+
+    private void checkEmail(String email, Long userId) {
+        if (userDirectory.isEmailTaken(email, userId)) {
+            throw new DuplicateEmailException("Пользователь с email=" + email + " уже существует.");
+        }
     }
 
 }
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT PRIMARY KEY NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start_time TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start_time TIMESTAMP WITHOUT TIME ZONE
+);
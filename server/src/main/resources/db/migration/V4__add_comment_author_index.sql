@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_comments_user ON comments (user_id);
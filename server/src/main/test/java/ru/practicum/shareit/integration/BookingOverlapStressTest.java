@@ -0,0 +1,115 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid};LOCK_TIMEOUT=10000")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class BookingOverlapStressTest {
+    private static final int THREADS = 16;
+    private static final int ITEMS = 4;
+    private static final int ATTEMPTS = 800;
+    private static final int SLOTS = 40;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void create_shouldNeverProduceOverlappingBookings_WhenCalledConcurrently() throws Exception {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("Owner")
+                .email("owner@email.com")
+                .build());
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.create(owner.getId(), ItemDto.builder()
+                    .name("Item" + i)
+                    .description("Description" + i)
+                    .available(true)
+                    .build()).getId());
+        }
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userService.create(UserDto.builder()
+                    .name("Booker" + i)
+                    .email("booker" + i + "@email.com")
+                    .build()).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int attempt = i;
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDateTime startTime = base.plusHours(random.nextInt(SLOTS));
+                BookingDtoInput booking = BookingDtoInput.builder()
+                        .itemId(itemIds.get(attempt % ITEMS))
+                        .start(startTime)
+                        .end(startTime.plusHours(1 + random.nextInt(3)))
+                        .build();
+                start.await();
+                try {
+                    bookingService.create(bookerIds.get(attempt % THREADS), booking);
+                    created.incrementAndGet();
+                } catch (BookingOverlapException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(ATTEMPTS, created.get() + rejected.get());
+        assertTrue(created.get() >= ITEMS);
+
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertEquals(created.get(), bookingsByItem.values().stream().mapToInt(List::size).sum());
+        for (List<Booking> bookings : bookingsByItem.values()) {
+            bookings.sort(Comparator.comparing(Booking::getStartTime));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertTrue(!bookings.get(i).getStartTime().isBefore(bookings.get(i - 1).getEndTime()),
+                        "Бронирования " + bookings.get(i - 1).getId() + " и " + bookings.get(i).getId()
+                                + " пересекаются");
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -19,6 +20,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -257,7 +259,7 @@ public class BookingServiceIntegrationTest {
     @Test
     void getAllBookerBookings_shouldThrowDataNotFoundException_WhenUserNotExist() {
         DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
-                () -> bookingService.getAllBookerBookings(999L, "ALL", 0, 10));
+                () -> bookingService.getAllBookerBookings(999L, "ALL", null, 0, 10));
 
         assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
     }
@@ -266,7 +268,7 @@ public class BookingServiceIntegrationTest {
     void getAllBookerBookings_shouldThrowWrongStateException_WhenWrongState() {
         userService.create(userDto);
         WrongStateException wrongStateException = assertThrows(WrongStateException.class,
-                () -> bookingService.getAllBookerBookings(1L, " ", 0, 10));
+                () -> bookingService.getAllBookerBookings(1L, " ", null, 0, 10));
 
         assertEquals("Unknown state: UNSUPPORTED_STATUS", wrongStateException.getMessage());
     }
@@ -280,7 +282,7 @@ public class BookingServiceIntegrationTest {
         BookingDtoOutput previousBooking = bookingService.create(savedBooker.getId(), previousBookingDto);
         BookingDtoOutput futureBooking = bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "ALL", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "ALL", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(futureBooking.getId(), returnedBookings.get(0).getId());
@@ -288,6 +290,31 @@ public class BookingServiceIntegrationTest {
         assertEquals(previousBooking.getId(), returnedBookings.get(2).getId());
     }
 
+    @Test
+    void getAllBookerBookings_shouldPageByCursorAndByUnalignedOffset() {
+        UserDto savedOwner = userService.create(userDto);
+        itemService.create(savedOwner.getId(), itemDto);
+        UserDto savedBooker = userService.create(user2Dto);
+        BookingDtoOutput currentBooking = bookingService.create(savedBooker.getId(), bookingDtoInput);
+        BookingDtoOutput previousBooking = bookingService.create(savedBooker.getId(), previousBookingDto);
+        BookingDtoOutput futureBooking = bookingService.create(savedBooker.getId(), futureBookingDto);
+
+        CursorPage<BookingDtoOutput> firstPage = bookingService.getAllBookerBookings(2L, "ALL", null, 0, 2);
+        CursorPage<BookingDtoOutput> secondPage = bookingService
+                .getAllBookerBookings(2L, "ALL", firstPage.getNext(), 0, 2);
+        List<BookingDtoOutput> fromOne = bookingService.getAllBookerBookings(2L, "ALL", null, 1, 2).getItems();
+
+        assertEquals(2, firstPage.getItems().size());
+        assertEquals(futureBooking.getId(), firstPage.getItems().get(0).getId());
+        assertEquals(currentBooking.getId(), firstPage.getItems().get(1).getId());
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals(previousBooking.getId(), secondPage.getItems().get(0).getId());
+        assertNull(secondPage.getNext());
+        assertEquals(2, fromOne.size());
+        assertEquals(currentBooking.getId(), fromOne.get(0).getId());
+        assertEquals(previousBooking.getId(), fromOne.get(1).getId());
+    }
+
     @Test
     void getAllBookerBookings_WhenStateCURRENT() {
         UserDto savedOwner = userService.create(userDto);
@@ -297,7 +324,7 @@ public class BookingServiceIntegrationTest {
         bookingService.create(savedBooker.getId(), previousBookingDto);
         bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "CURRENT", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "CURRENT", null, 0, 10).getItems();
 
         assertEquals(1, returnedBookings.size());
         assertEquals(currentBooking.getId(), returnedBookings.get(0).getId());
@@ -312,7 +339,7 @@ public class BookingServiceIntegrationTest {
         BookingDtoOutput previousBooking = bookingService.create(savedBooker.getId(), previousBookingDto);
         bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "PAST", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "PAST", null, 0, 10).getItems();
 
         assertEquals(1, returnedBookings.size());
         assertEquals(previousBooking.getId(), returnedBookings.get(0).getId());
@@ -327,7 +354,7 @@ public class BookingServiceIntegrationTest {
         bookingService.create(savedBooker.getId(), previousBookingDto);
         BookingDtoOutput futureBooking = bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "FUTURE", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "FUTURE", null, 0, 10).getItems();
 
         assertEquals(1, returnedBookings.size());
         assertEquals(futureBooking.getId(), returnedBookings.get(0).getId());
@@ -342,7 +369,7 @@ public class BookingServiceIntegrationTest {
         BookingDtoOutput previousBooking = bookingService.create(savedBooker.getId(), previousBookingDto);
         BookingDtoOutput futureBooking = bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "WAITING", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "WAITING", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(futureBooking.getId(), returnedBookings.get(0).getId());
@@ -353,7 +380,7 @@ public class BookingServiceIntegrationTest {
     @Test
     void getAllOwnerItemBookings_shouldThrowDataNotFoundException_WhenUserNotExist() {
         DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
-                () -> bookingService.getAllOwnerItemBookings(999L, "ALL", 0, 10));
+                () -> bookingService.getAllOwnerItemBookings(999L, "ALL", null, 0, 10));
 
         assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
     }
@@ -365,7 +392,7 @@ public class BookingServiceIntegrationTest {
         userService.create(user2Dto);
 
         WrongStateException wrongStateException = assertThrows(WrongStateException.class,
-                () -> bookingService.getAllOwnerItemBookings(1L, " ", 0, 10));
+                () -> bookingService.getAllOwnerItemBookings(1L, " ", null, 0, 10));
 
         assertEquals("Unknown state: UNSUPPORTED_STATUS", wrongStateException.getMessage());
     }
@@ -379,7 +406,7 @@ public class BookingServiceIntegrationTest {
         BookingDtoOutput previousBooking = bookingService.create(savedBooker.getId(), previousBookingDto);
         BookingDtoOutput futureBooking = bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "ALL", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "ALL", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(futureBooking.getId(), returnedBookings.get(0).getId());
@@ -396,7 +423,7 @@ public class BookingServiceIntegrationTest {
         bookingService.create(savedBooker.getId(), previousBookingDto);
         bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "CURRENT", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "CURRENT", null, 0, 10).getItems();
 
         assertEquals(1, returnedBookings.size());
         assertEquals(currentBooking.getId(), returnedBookings.get(0).getId());
@@ -411,7 +438,7 @@ public class BookingServiceIntegrationTest {
         BookingDtoOutput previousBooking = bookingService.create(savedBooker.getId(), previousBookingDto);
         bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "PAST", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "PAST", null, 0, 10).getItems();
 
         assertEquals(1, returnedBookings.size());
         assertEquals(previousBooking.getId(), returnedBookings.get(0).getId());
@@ -426,7 +453,7 @@ public class BookingServiceIntegrationTest {
         bookingService.create(savedBooker.getId(), previousBookingDto);
         BookingDtoOutput futureBooking = bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "FUTURE", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "FUTURE", null, 0, 10).getItems();
 
         assertEquals(1, returnedBookings.size());
         assertEquals(futureBooking.getId(), returnedBookings.get(0).getId());
@@ -441,7 +468,7 @@ public class BookingServiceIntegrationTest {
         BookingDtoOutput previousBooking = bookingService.create(savedBooker.getId(), previousBookingDto);
         BookingDtoOutput futureBooking = bookingService.create(savedBooker.getId(), futureBookingDto);
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "WAITING", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(1L, "WAITING", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(futureBooking.getId(), returnedBookings.get(0).getId());
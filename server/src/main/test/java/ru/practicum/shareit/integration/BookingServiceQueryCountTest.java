@@ -0,0 +1,120 @@
+package ru.practicum.shareit.integration;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class BookingServiceQueryCountTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserDto booker;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        booker = userService.create(UserDto.builder()
+                .name("Booker")
+                .email("booker@email.com")
+                .build());
+    }
+
+    @Test
+    void getAllBookerBookings_shouldUseSingleQuery() {
+        for (int i = 0; i < 5; i++) {
+            createBookingOfNewOwner("owner" + i);
+        }
+        statistics.clear();
+
+        List<BookingDtoOutput> bookings = bookingService.getAllBookerBookings(booker.getId(), "ALL", null, 0, 10)
+                .getItems();
+
+        assertEquals(5, bookings.size());
+        bookings.forEach(booking -> {
+            assertNotNull(booking.getItem().getName());
+            assertNotNull(booking.getItem().getRequestId());
+            assertEquals(booker.getName(), booking.getBooker().getName());
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllOwnerItemBookings_shouldUseSingleQuery() {
+        UserDto owner = createBookingOfNewOwner("owner");
+        statistics.clear();
+
+        List<BookingDtoOutput> bookings = bookingService.getAllOwnerItemBookings(owner.getId(), "ALL", null, 0, 10)
+                .getItems();
+
+        assertEquals(1, bookings.size());
+        assertEquals(booker.getEmail(), bookings.get(0).getBooker().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getBooking_shouldFetchItemAndBookerTogether() {
+        UserDto owner = createBookingOfNewOwner("owner");
+        BookingDtoOutput created = bookingService.getAllOwnerItemBookings(owner.getId(), "ALL", null, 0, 10)
+                .getItems().get(0);
+        statistics.clear();
+
+        BookingDtoOutput booking = bookingService.getBooking(owner.getId(), created.getId());
+
+        assertEquals(created.getItem().getName(), booking.getItem().getName());
+        assertEquals(booker.getName(), booking.getBooker().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private UserDto createBookingOfNewOwner(String name) {
+        UserDto owner = userService.create(UserDto.builder()
+                .name(name)
+                .email(name + "@email.com")
+                .build());
+        ItemRequestDto request = itemRequestService.create(booker.getId(), ItemRequestDto.builder()
+                .description(name + "Request")
+                .build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name(name + "Item")
+                .description(name + "ItemDescription")
+                .available(true)
+                .requestId(request.getId())
+                .build());
+        bookingService.create(booker.getId(), BookingDtoInput.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build());
+        return owner;
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryRefresher;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ConnectionCheckoutTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockBean
+    private ItemBookingSummaryRefresher itemBookingSummaryRefresher;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void init() {
+        owner = userService.create(UserDto.builder()
+                .name("Owner")
+                .email("owner@email.com")
+                .build());
+        booker = userService.create(UserDto.builder()
+                .name("Booker")
+                .email("booker@email.com")
+                .build());
+        item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Item")
+                .description("ItemDescription")
+                .available(true)
+                .build());
+
+        BookingDtoOutput booking = bookingService.create(booker.getId(), BookingDtoInput.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minusHours(2))
+                .end(LocalDateTime.now().minusHours(1))
+                .build());
+        bookingService.updateStatus(owner.getId(), booking.getId(), true);
+        itemService.createComment(booker.getId(), item.getId(), CommentDto.builder()
+                .text("comment")
+                .build());
+    }
+
+    @Test
+    void getItems_shouldCheckOutOneConnection() {
+        long before = checkouts();
+
+        itemService.getItems(owner.getId(), 0, 10);
+
+        assertEquals(1, checkouts() - before);
+    }
+
+    @Test
+    @SneakyThrows
+    void getItems_shouldCheckOutOneConnection_WhenSummaryIsStale() {
+        BookingDtoOutput booking = bookingService.create(booker.getId(), BookingDtoInput.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusNanos(200_000_000))
+                .end(LocalDateTime.now().plusHours(1))
+                .build());
+        bookingService.updateStatus(owner.getId(), booking.getId(), true);
+        Thread.sleep(300);
+        long before = checkouts();
+
+        ItemDto returnedItem = itemService.getItems(owner.getId(), 0, 10).get(0);
+
+        assertEquals(1, checkouts() - before);
+        assertEquals(booking.getId(), returnedItem.getLastBooking().getId());
+        Mockito.verify(itemBookingSummaryRefresher).refreshLater(List.of(item.getId()));
+    }
+
+    @Test
+    void getItemById_shouldCheckOutOneConnection_AndNoneWhenCached() {
+        long before = checkouts();
+
+        itemService.getItemById(owner.getId(), item.getId());
+        long afterLoad = checkouts();
+        itemService.getItemById(owner.getId(), item.getId());
+
+        assertEquals(1, afterLoad - before);
+        assertEquals(afterLoad, checkouts());
+    }
+
+    @Test
+    void getAllBookerBookings_shouldCheckOutOneConnection() {
+        long before = checkouts();
+
+        bookingService.getAllBookerBookings(booker.getId(), "ALL", null, 0, 10);
+
+        assertEquals(1, checkouts() - before);
+    }
+
+    @Test
+    void updateStatus_shouldCheckOutOneConnection() {
+        BookingDtoOutput booking = bookingService.create(booker.getId(), BookingDtoInput.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build());
+        long before = checkouts();
+
+        bookingService.updateStatus(owner.getId(), booking.getId(), true);
+
+        assertEquals(1, checkouts() - before);
+    }
+
+    private long checkouts() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+    }
+}
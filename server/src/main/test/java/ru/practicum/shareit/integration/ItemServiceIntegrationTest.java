@@ -11,9 +11,11 @@ import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ItemAvailabilityException;
 import ru.practicum.shareit.exception.WrongAccesException;
+import ru.practicum.shareit.exception.WrongCursorException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -21,6 +23,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -177,6 +180,26 @@ public class ItemServiceIntegrationTest {
         assertEquals(2L, returnedItem.getNextBooking().getBookerId());
     }
 
+    @Test
+    void getItemById_shouldRefreshCachedItem_WhenBookingApprovedOrCommentAdded() {
+        UserDto savedOwner = userService.create(userDto);
+        UserDto savedBooker = userService.create(user2Dto);
+        itemService.create(1L, itemDto);
+        BookingDtoOutput last = bookingService.create(savedBooker.getId(), lastBooking);
+
+        ItemDto beforeApproval = itemService.getItemById(1L, 1L);
+        bookingService.updateStatus(savedOwner.getId(), last.getId(), true);
+        ItemDto afterApproval = itemService.getItemById(1L, 1L);
+        itemService.createComment(savedBooker.getId(), 1L, commentDto);
+        ItemDto afterComment = itemService.getItemById(1L, 1L);
+
+        assertNull(beforeApproval.getLastBooking());
+        assertEquals(last.getId(), afterApproval.getLastBooking().getId());
+        assertEquals(0, afterApproval.getComments().size());
+        assertEquals(1, afterComment.getComments().size());
+        assertEquals(commentDto.getText(), afterComment.getComments().get(0).getText());
+    }
+
     @Test
     void getItemById_shouldReturnItemWithoutBookings_WhenUserIsNotOwner() {
         UserDto savedOwner = userService.create(userDto);
@@ -285,7 +308,7 @@ public class ItemServiceIntegrationTest {
         ItemDto createdItemDto = itemService.create(1L, itemDto);
         ItemDto createdItem2Dto = itemService.create(1L, item2Dto);
 
-        List<ItemDto> returnedItems = itemService.getItemByText(1L, "descr", 0, 10);
+        List<ItemDto> returnedItems = itemService.getItemByText(1L, "descr", null, 0, 10).getItems();
 
         assertEquals(2, returnedItems.size());
         assertEquals(createdItemDto.getId(), returnedItems.get(0).getId());
@@ -294,10 +317,57 @@ public class ItemServiceIntegrationTest {
         assertEquals(createdItem2Dto.getName(), returnedItems.get(1).getName());
     }
 
+    @Test
+    void getItemByText_shouldSkipUnavailableItemsAndPageByCursor() {
+        userService.create(userDto);
+        userService.create(user2Dto);
+        ItemDto createdItemDto = itemService.create(1L, itemDto);
+        ItemDto createdItem2Dto = itemService.create(1L, item2Dto);
+        ItemDto unavailableItemDto = itemService.create(1L, ItemDto.builder()
+                .name("Item3")
+                .description("Item3Description")
+                .available(false)
+                .build());
+
+        CursorPage<ItemDto> firstPage = itemService.getItemByText(1L, "descr", null, 0, 1);
+        CursorPage<ItemDto> secondPage = itemService.getItemByText(1L, "descr", firstPage.getNext(), 0, 1);
+        CursorPage<ItemDto> thirdPage = itemService.getItemByText(1L, "descr", secondPage.getNext(), 0, 1);
+
+        assertEquals(1, firstPage.getItems().size());
+        assertEquals(createdItemDto.getId(), firstPage.getItems().get(0).getId());
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals(createdItem2Dto.getId(), secondPage.getItems().get(0).getId());
+        assertEquals(0, thirdPage.getItems().size());
+        assertNull(thirdPage.getNext());
+        assertNotEquals(unavailableItemDto.getId(), secondPage.getItems().get(0).getId());
+    }
+
+    @Test
+    void getItemByText_shouldSkipItemsOfDeletedUser() {
+        userService.create(userDto);
+        userService.create(user2Dto);
+        itemService.create(1L, itemDto);
+        ItemDto createdItem2Dto = itemService.create(2L, item2Dto);
+
+        userService.delete(1L);
+        List<ItemDto> returnedItems = itemService.getItemByText(2L, "descr", null, 0, 10).getItems();
+
+        assertEquals(1, returnedItems.size());
+        assertEquals(createdItem2Dto.getId(), returnedItems.get(0).getId());
+    }
+
+    @Test
+    void getItemByText_shouldThrowWrongCursorException_WhenCursorIsBroken() {
+        userService.create(userDto);
+
+        assertThrows(WrongCursorException.class,
+                () -> itemService.getItemByText(1L, "descr", "broken", 0, 10));
+    }
+
     @Test
     void getItemByText_shouldThrowDataNotFoundException_WhenUserNotFound() {
         DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
-                () -> itemService.getItemByText(999L, "descr", 0, 10));
+                () -> itemService.getItemByText(999L, "descr", null, 0, 10));
 
         assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
     }
@@ -306,7 +376,7 @@ public class ItemServiceIntegrationTest {
     void getItemByText_shouldGetEmptyList_WhenTextIsBlank() {
         userService.create(userDto);
 
-        List<ItemDto> returnedItems = itemService.getItemByText(1L, " ", 0, 10);
+        List<ItemDto> returnedItems = itemService.getItemByText(1L, " ", null, 0, 10).getItems();
 
         assertEquals(0, returnedItems.size());
     }
@@ -345,4 +415,49 @@ public class ItemServiceIntegrationTest {
 
         assertEquals("Пользователь с id=1 не бронировал вещь с id=1", itemAvailabilityException.getMessage());
     }
+
+    @Test
+    void getComments_shouldReturnLatestCommentsWithCountAndPageTheRest() {
+        UserDto savedOwner = userService.create(userDto);
+        UserDto savedBooker = userService.create(user2Dto);
+        itemDto.setRequestId(null);
+        ItemDto savedItem = itemService.create(savedOwner.getId(), itemDto);
+        BookingDtoOutput createdBooking = bookingService.create(savedBooker.getId(), lastBooking);
+        bookingService.updateStatus(savedOwner.getId(), createdBooking.getId(), true);
+        for (int i = 0; i < 12; i++) {
+            itemService.createComment(savedBooker.getId(), savedItem.getId(), CommentDto.builder()
+                    .text("comment" + i)
+                    .build());
+        }
+
+        ItemDto returnedItem = itemService.getItemById(savedOwner.getId(), savedItem.getId());
+        ItemDto ownerItem = itemService.getItems(savedOwner.getId(), 0, 10).get(0);
+        CursorPage<CommentDto> firstPage = itemService.getComments(savedBooker.getId(), savedItem.getId(), null, 0, 5);
+        CursorPage<CommentDto> secondPage = itemService.getComments(savedBooker.getId(), savedItem.getId(),
+                firstPage.getNext(), 0, 5);
+        CursorPage<CommentDto> lastPage = itemService.getComments(savedBooker.getId(), savedItem.getId(),
+                secondPage.getNext(), 0, 5);
+
+        assertEquals(12L, returnedItem.getCommentCount());
+        assertEquals(10, returnedItem.getComments().size());
+        assertEquals("comment11", returnedItem.getComments().get(0).getText());
+        assertEquals(12L, ownerItem.getCommentCount());
+        assertEquals(returnedItem.getComments(), ownerItem.getComments());
+        assertEquals("comment11", firstPage.getItems().get(0).getText());
+        assertEquals("comment6", secondPage.getItems().get(0).getText());
+        assertEquals(List.of("comment1", "comment0"), lastPage.getItems().stream()
+                .map(CommentDto::getText)
+                .collect(Collectors.toList()));
+        assertNull(lastPage.getNext());
+    }
+
+    @Test
+    void getComments_shouldThrowDataNotFoundException_WhenItemNotFound() {
+        UserDto savedOwner = userService.create(userDto);
+
+        DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
+                () -> itemService.getComments(savedOwner.getId(), 999L, null, 0, 10));
+
+        assertEquals("Вещи с id=999 нет.", dataNotFoundException.getMessage());
+    }
 }
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.integration;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ItemServiceQueryCountTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserDto booker;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        booker = userService.create(UserDto.builder()
+                .name("Booker")
+                .email("booker@email.com")
+                .build());
+    }
+
+    @Test
+    void getItems_shouldUseConstantNumberOfQueries() {
+        UserDto smallOwner = createOwnerWithItems("small", 2);
+        UserDto bigOwner = createOwnerWithItems("big", 8);
+
+        long smallOwnerQueries = countQueries(smallOwner.getId(), 2);
+        long bigOwnerQueries = countQueries(bigOwner.getId(), 8);
+
+        assertEquals(smallOwnerQueries, bigOwnerQueries);
+    }
+
+    private long countQueries(long ownerId, int expectedItems) {
+        statistics.clear();
+
+        List<ItemDto> items = itemService.getItems(ownerId, 0, 20);
+
+        assertEquals(expectedItems, items.size());
+        items.forEach(item -> {
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+            assertEquals(1, item.getComments().size());
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UserDto createOwnerWithItems(String name, int itemCount) {
+        UserDto owner = userService.create(UserDto.builder()
+                .name(name)
+                .email(name + "@email.com")
+                .build());
+
+        for (int i = 0; i < itemCount; i++) {
+            ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                    .name(name + "Item" + i)
+                    .description(name + "ItemDescription" + i)
+                    .available(true)
+                    .build());
+
+            BookingDtoOutput last = bookingService.create(booker.getId(), BookingDtoInput.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().minusHours(2))
+                    .end(LocalDateTime.now().minusHours(1))
+                    .build());
+            bookingService.updateStatus(owner.getId(), last.getId(), true);
+
+            BookingDtoOutput next = bookingService.create(booker.getId(), BookingDtoInput.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusHours(1))
+                    .end(LocalDateTime.now().plusHours(2))
+                    .build());
+            bookingService.updateStatus(owner.getId(), next.getId(), true);
+
+            itemService.createComment(booker.getId(), item.getId(), CommentDto.builder()
+                    .text("comment" + i)
+                    .build());
+        }
+        return owner;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.CustomHeaders.USER_ID;
+
+// Реплика — отдельная база H2 со схемой, но без данных: всё, что читается из неё, оказывается пустым.
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test",
+        "shareit.datasource.replica.read-your-writes=1m"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing-test;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "test", "test")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void readOnlyCalls_shouldReadFromReplica() {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+        ItemDto item = createItem(owner);
+        bookingService.create(booker.getId(), bookingFor(item));
+
+        assertEquals(0, bookingService.getAllBookerBookings(booker.getId(), "ALL", null, 0, 10)
+                .getItems().size());
+        assertEquals(0, itemService.getItems(owner.getId(), 0, 10).size());
+    }
+
+    @Test
+    @SneakyThrows
+    void readsAfterOwnWrite_shouldGoToPrimary() {
+        UserDto owner = createUser("pinnedOwner");
+        UserDto booker = createUser("pinnedBooker");
+        ItemDto item = createItem(owner);
+
+        mockMvc.perform(post("/bookings")
+                        .header(USER_ID, booker.getId())
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(bookingFor(item))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_ID, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    private UserDto createUser(String name) {
+        return userService.create(UserDto.builder()
+                .name(name)
+                .email(name + "@email.com")
+                .build());
+    }
+
+    private ItemDto createItem(UserDto owner) {
+        return itemService.create(owner.getId(), ItemDto.builder()
+                .name("Item")
+                .description("ItemDescription")
+                .available(true)
+                .build());
+    }
+
+    private BookingDtoInput bookingFor(ItemDto item) {
+        return BookingDtoInput.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build();
+    }
+}
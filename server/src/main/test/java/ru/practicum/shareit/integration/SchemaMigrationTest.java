@@ -0,0 +1,137 @@
+package ru.practicum.shareit.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.directory.UserDirectory;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SchemaMigrationTest {
+    private static final int USERS = 1_000;
+    private static final int ITEMS_PER_USER = 20;
+    private static final Duration MAX_RESTART = Duration.ofSeconds(30);
+
+    private String url;
+    private Connection keepAlive;
+
+    @BeforeEach
+    void init() throws SQLException {
+        url = "jdbc:h2:mem:" + UUID.randomUUID();
+        keepAlive = DriverManager.getConnection(url, "test", "test");
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        keepAlive.close();
+    }
+
+    @Test
+    void migrate_shouldApplyOnlyOutstandingMigrationsAndKeepData() throws SQLException {
+        MigrateResult firstStart = flyway().migrate();
+        assertTrue(firstStart.migrationsExecuted > 0);
+
+        fillDatabase();
+
+        MigrateResult restart = flyway().migrate();
+
+        assertEquals(0, restart.migrationsExecuted);
+        assertEquals(USERS, count("users"));
+        assertEquals(USERS * ITEMS_PER_USER, count("items"));
+    }
+
+    // Повторные миграции почти ничего не стоят; при перезапуске время уходит на загрузку индекса поиска
+    // и справочника пользователей. Замеры на больших объёмах — в StartupBenchmark модуля benchmarks.
+    @Test
+    void restart_shouldLoadExistingDataOnFilledDatabase() throws SQLException {
+        flyway().migrate();
+        fillDatabase();
+
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=" + url)) {
+            Duration restart = Duration.ofNanos(System.nanoTime() - started);
+
+            assertTrue(context.getBean(UserDirectory.class).exists((long) USERS));
+            assertEquals(USERS, context.getBean(ItemSearchEngine.class)
+                    .search("item" + (ITEMS_PER_USER - 1), null, 0, USERS * ITEMS_PER_USER).getItems().size());
+            assertTrue(restart.compareTo(MAX_RESTART) < 0,
+                    "Перезапуск на заполненной базе занял " + restart.toMillis() + " мс");
+        }
+    }
+
+    @Test
+    void migrate_shouldBaselineSchemaCreatedBeforeMigrations() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE users (" +
+                    "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL, " +
+                    "name VARCHAR NOT NULL, " +
+                    "email VARCHAR UNIQUE NOT NULL)");
+            statement.execute("INSERT INTO users (name, email) VALUES ('User', 'user@email.com')");
+        }
+
+        MigrateResult result = flyway().migrate();
+
+        assertTrue(result.migrationsExecuted > 0);
+        assertEquals(1, count("users"));
+        assertEquals(0, count("item_booking_summary"));
+    }
+
+    private Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(url, "test", "test")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+
+    private void fillDatabase() throws SQLException {
+        keepAlive.setAutoCommit(false);
+        try (PreparedStatement users = keepAlive.prepareStatement(
+                "INSERT INTO users (id, name, email) VALUES (?, ?, ?)");
+             PreparedStatement items = keepAlive.prepareStatement(
+                     "INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, TRUE, ?)")) {
+            for (long userId = 1; userId <= USERS; userId++) {
+                users.setLong(1, userId);
+                users.setString(2, "User" + userId);
+                users.setString(3, "user" + userId + "@email.com");
+                users.addBatch();
+            }
+            users.executeBatch();
+            for (long userId = 1; userId <= USERS; userId++) {
+                for (int i = 0; i < ITEMS_PER_USER; i++) {
+                    items.setString(1, "Item" + i);
+                    items.setString(2, "Created " + LocalDateTime.now());
+                    items.setLong(3, userId);
+                    items.addBatch();
+                }
+                items.executeBatch();
+            }
+        }
+        keepAlive.commit();
+        keepAlive.setAutoCommit(true);
+    }
+
+    private long count(String table) throws SQLException {
+        try (Statement statement = keepAlive.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
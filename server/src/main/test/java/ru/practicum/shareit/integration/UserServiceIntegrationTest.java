@@ -5,13 +5,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.DuplicateEmailException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -19,6 +32,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class UserServiceIntegrationTest {
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
 
     private UserDto userDto;
     private UserDto userDtoToUpdate;
@@ -101,4 +122,61 @@ public class UserServiceIntegrationTest {
 
         assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
     }
+
+    @Test
+    void shouldThrowDuplicateEmailException_WhenEmailTakenAndAllowItAfterDelete() {
+        UserDto createdUser = userService.create(userDto);
+        UserDto otherUser = userService.create(UserDto.builder()
+                .name("Other")
+                .email("other@email.com")
+                .build());
+
+        assertThrows(DuplicateEmailException.class, () -> userService.create(userDto));
+        assertThrows(DuplicateEmailException.class, () -> userService.update(otherUser.getId(), UserDto.builder()
+                .email("user@email.com")
+                .build()));
+
+        userService.delete(createdUser.getId());
+        UserDto updatedUser = userService.update(otherUser.getId(), UserDto.builder()
+                .email("user@email.com")
+                .build());
+
+        assertEquals("user@email.com", updatedUser.getEmail());
+    }
+
+    @Test
+    void shouldRecalculateBookingSummaryOfOtherItem_WhenBookerDeleted() {
+        User owner = userRepository.findById(userService.create(userDto).getId()).orElseThrow();
+        UserDto booker = userService.create(UserDto.builder()
+                .name("Booker")
+                .email("booker@email.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Item")
+                .description("Item Description")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking booking = bookingRepository.save(Booking.builder()
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .item(item)
+                .booker(userRepository.findById(booker.getId()).orElseThrow())
+                .status(BookingStatus.APPROVED)
+                .build());
+        summaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .lastBookingId(booking.getId())
+                .lastBookerId(booker.getId())
+                .lastStartTime(start)
+                .build());
+
+        userService.delete(booker.getId());
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBookingId());
+        assertNull(summary.getLastBookerId());
+        assertNull(summary.getLastStartTime());
+    }
 }
@@ -7,18 +7,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.dto.BookingTimes;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @DataJpaTest
 public class BookingRepositoryTest {
@@ -28,6 +39,8 @@ public class BookingRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
 
     private User owner;
     private User booker;
@@ -86,7 +99,8 @@ public class BookingRepositoryTest {
         bookingRepository.save(booking);
 
         List<Booking> returnedBookings = bookingRepository
-                .readAllBookerCurrentBookings(booker.getId(), LocalDateTime.now(), pageable);
+                .readAllBookerCurrentBookings(booker.getId(), LocalDateTime.now(),
+                        TimeCursor.first().getTime(), TimeCursor.first().getId(), pageable);
 
         assertEquals(1, returnedBookings.size());
         assertEquals(booking.getItem().getId(), returnedBookings.get(0).getItem().getId());
@@ -103,7 +117,8 @@ public class BookingRepositoryTest {
         bookingRepository.save(booking);
 
         List<Booking> returnedBookings = bookingRepository
-                .readAllBookerPastBookings(booker.getId(), LocalDateTime.now(), pageable);
+                .readAllBookerPastBookings(booker.getId(), LocalDateTime.now(),
+                        TimeCursor.first().getTime(), TimeCursor.first().getId(), pageable);
 
         assertEquals(1, returnedBookings.size());
         assertEquals(booking.getItem().getId(), returnedBookings.get(0).getItem().getId());
@@ -116,7 +131,8 @@ public class BookingRepositoryTest {
     @Test
     void shouldReadAllBookerFutureBookings() {
         List<Booking> returnedBookings = bookingRepository
-                .readAllBookerFutureBookings(booker.getId(), LocalDateTime.now(), pageable);
+                .readAllBookerFutureBookings(booker.getId(), LocalDateTime.now(),
+                        TimeCursor.first().getTime(), TimeCursor.first().getId(), pageable);
 
         assertEquals(1, returnedBookings.size());
         assertEquals(booking.getItem().getId(), returnedBookings.get(0).getItem().getId());
@@ -127,12 +143,13 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void shouldReadAllOwnerItemsCurrentBookings() {
+    void shouldReadAllOwnerCurrentBookings() {
         booking.setStartTime(LocalDateTime.now().minusHours(1));
         bookingRepository.save(booking);
 
         List<Booking> returnedBookings = bookingRepository
-                .readAllOwnerItemsCurrentBookings(List.of(item.getId()), LocalDateTime.now(), pageable);
+                .readAllOwnerCurrentBookings(owner.getId(), LocalDateTime.now(),
+                        TimeCursor.first().getTime(), TimeCursor.first().getId(), pageable);
 
         assertEquals(1, returnedBookings.size());
         assertEquals(booking.getItem().getId(), returnedBookings.get(0).getItem().getId());
@@ -143,13 +160,14 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void shouldReadAllOwnerItemsPastBookings() {
+    void shouldReadAllOwnerPastBookings() {
         booking.setStartTime(LocalDateTime.now().minusHours(2));
         booking.setEndTime(LocalDateTime.now().minusHours(1));
         bookingRepository.save(booking);
 
         List<Booking> returnedBookings = bookingRepository
-                .readAllOwnerItemsPastBookings(List.of(item.getId()), LocalDateTime.now(), pageable);
+                .readAllOwnerPastBookings(owner.getId(), LocalDateTime.now(),
+                        TimeCursor.first().getTime(), TimeCursor.first().getId(), pageable);
 
         assertEquals(1, returnedBookings.size());
         assertEquals(booking.getItem().getId(), returnedBookings.get(0).getItem().getId());
@@ -160,9 +178,10 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void shouldReadAllOwnerItemsFutureBookings() {
+    void shouldReadAllOwnerFutureBookings() {
         List<Booking> returnedBookings = bookingRepository
-                .readAllOwnerItemsFutureBookings(List.of(item.getId()), LocalDateTime.now(), pageable);
+                .readAllOwnerFutureBookings(owner.getId(), LocalDateTime.now(),
+                        TimeCursor.first().getTime(), TimeCursor.first().getId(), pageable);
 
         assertEquals(1, returnedBookings.size());
         assertEquals(booking.getItem().getId(), returnedBookings.get(0).getItem().getId());
@@ -171,4 +190,182 @@ public class BookingRepositoryTest {
         assertEquals(booking.getEndTime(), returnedBookings.get(0).getEndTime());
         assertEquals(booking.getStatus(), returnedBookings.get(0).getStatus());
     }
+
+    @Test
+    void shouldReadAllOwnerBookingsOnlyForOwnerItems() {
+        Item bookerItem = itemRepository.save(Item.builder()
+                .name("BookerItem")
+                .description("BookerItem Description")
+                .available(true)
+                .owner(booker)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .startTime(LocalDateTime.now().plusHours(3))
+                .endTime(LocalDateTime.now().plusHours(4))
+                .item(bookerItem)
+                .booker(owner)
+                .status(BookingStatus.WAITING)
+                .build());
+
+        List<Booking> ownerBookings = bookingRepository.readAllOwnerBookings(owner.getId(),
+                TimeCursor.first().getTime(), TimeCursor.first().getId(), pageable);
+        List<Booking> waitingBookings = bookingRepository.readAllOwnerBookingsByStatus(owner.getId(),
+                BookingStatus.WAITING, TimeCursor.first().getTime(), TimeCursor.first().getId(), pageable);
+
+        assertEquals(1, ownerBookings.size());
+        assertEquals(booking.getId(), ownerBookings.get(0).getId());
+        assertEquals(1, waitingBookings.size());
+        assertEquals(booking.getId(), waitingBookings.get(0).getId());
+    }
+
+    @Test
+    void shouldFindLastAndNextBookingsForItem() {
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        Booking lastBooking = bookingRepository.save(Booking.builder()
+                .startTime(LocalDateTime.now().minusHours(2))
+                .endTime(LocalDateTime.now().minusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .startTime(LocalDateTime.now().minusHours(4))
+                .endTime(LocalDateTime.now().minusHours(3))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        Pageable first = PageRequest.of(0, 1);
+
+        List<BookingShort> last = bookingRepository
+                .findLastBookings(item.getId(), BookingStatus.APPROVED, LocalDateTime.now(), first);
+        List<BookingShort> next = bookingRepository
+                .findNextBookings(item.getId(), BookingStatus.APPROVED, LocalDateTime.now(), first);
+
+        assertEquals(1, last.size());
+        assertEquals(lastBooking.getId(), last.get(0).getId());
+        assertEquals(booker.getId(), last.get(0).getBookerId());
+        assertEquals(1, next.size());
+        assertEquals(booking.getId(), next.get(0).getId());
+    }
+
+    @Test
+    void shouldBreakStartTimeTiesBySmallestId_WhenFindingLastAndNextBookings() {
+        LocalDateTime lastStart = LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime nextStart = LocalDateTime.now().plusHours(2).truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> bookings = List.of(lastStart, lastStart, nextStart, nextStart).stream()
+                .map(start -> bookingRepository.save(Booking.builder()
+                        .startTime(start)
+                        .endTime(start.plusHours(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.APPROVED)
+                        .build()))
+                .collect(Collectors.toList());
+        Pageable first = PageRequest.of(0, 1);
+
+        List<BookingShort> last = bookingRepository
+                .findLastBookings(item.getId(), BookingStatus.APPROVED, LocalDateTime.now(), first);
+        List<BookingShort> next = bookingRepository
+                .findNextBookings(item.getId(), BookingStatus.APPROVED, LocalDateTime.now(), first);
+
+        assertEquals(bookings.get(0).getId(), last.get(0).getId());
+        assertEquals(bookings.get(2).getId(), next.get(0).getId());
+    }
+
+    @Test
+    void shouldFindLastAndNextBookingsForSeveralItems() {
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setStartTime(booking.getStartTime().truncatedTo(ChronoUnit.SECONDS));
+        bookingRepository.save(booking);
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("Other")
+                .description("Other Description")
+                .available(true)
+                .owner(owner)
+                .build());
+        Booking otherLast = bookingRepository.save(Booking.builder()
+                .startTime(LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.SECONDS))
+                .endTime(LocalDateTime.now().minusHours(1))
+                .item(otherItem)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .startTime(LocalDateTime.now().minusHours(4))
+                .endTime(LocalDateTime.now().minusHours(3))
+                .item(otherItem)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        List<Long> itemIds = List.of(item.getId(), otherItem.getId());
+
+        Map<Long, BookingTimes> times = bookingRepository
+                .findBookingTimesForItems(itemIds, BookingStatus.APPROVED, LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(BookingTimes::getItemId, Function.identity()));
+        List<BookingShort> bookings = bookingRepository.findBookingsForItemsStartingAt(itemIds,
+                BookingStatus.APPROVED, List.of(otherLast.getStartTime(), booking.getStartTime()));
+
+        assertEquals(2, times.size());
+        assertNull(times.get(item.getId()).getLastStartTime());
+        assertEquals(booking.getStartTime(), times.get(item.getId()).getNextStartTime());
+        assertEquals(otherLast.getStartTime(), times.get(otherItem.getId()).getLastStartTime());
+        assertNull(times.get(otherItem.getId()).getNextStartTime());
+        assertEquals(Set.of(booking.getId(), otherLast.getId()), bookings.stream()
+                .map(BookingShort::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void shouldUpdateSummaryOnlyWhenStale() {
+        LocalDateTime now = LocalDateTime.now();
+        summaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .nextBookingId(booking.getId())
+                .nextBookerId(booker.getId())
+                .nextStartTime(now.plusHours(1))
+                .build());
+
+        int fresh = summaryRepository.updateIfStale(item.getId(), booking.getId(), booker.getId(), now,
+                null, null, null, now);
+        int stale = summaryRepository.updateIfStale(item.getId(), booking.getId(), booker.getId(), now,
+                null, null, null, now.plusHours(2));
+
+        assertEquals(0, fresh);
+        assertEquals(1, stale);
+    }
+
+    @Test
+    void shouldReadAllBookerBookingsAfterCursor() {
+        // Курсор берётся из сохранённых сущностей, поэтому время не должно быть точнее, чем хранит база.
+        booking.setStartTime(booking.getStartTime().truncatedTo(ChronoUnit.SECONDS));
+        bookingRepository.save(booking);
+        Booking sameStart = bookingRepository.save(Booking.builder()
+                .startTime(booking.getStartTime())
+                .endTime(booking.getEndTime())
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+        Booking earlier = bookingRepository.save(Booking.builder()
+                .startTime(booking.getStartTime().minusDays(1))
+                .endTime(booking.getEndTime().minusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+        Pageable firstTwo = PageRequest.of(0, 2);
+
+        List<Booking> firstPage = bookingRepository.readAllBookerBookings(booker.getId(),
+                TimeCursor.first().getTime(), TimeCursor.first().getId(), firstTwo);
+        Booking last = firstPage.get(firstPage.size() - 1);
+        List<Booking> secondPage = bookingRepository.readAllBookerBookings(booker.getId(),
+                last.getStartTime(), last.getId(), firstTwo);
+
+        assertEquals(List.of(sameStart.getId(), booking.getId()),
+                List.of(firstPage.get(0).getId(), firstPage.get(1).getId()));
+        assertEquals(1, secondPage.size());
+        assertEquals(earlier.getId(), secondPage.get(0).getId());
+    }
 }
@@ -63,10 +63,22 @@ public class ItemRepositoryTest {
 
     @Test
     void shouldSearchByText() {
-        List<Item> items = itemRepository.findItemByText("description", pageable);
+        List<Long> itemIds = itemRepository.findItemIdsByText("description", 0L, pageable);
 
-        assertEquals(1, items.size());
-        assertEquals(item.getName(), items.get(0).getName());
-        assertEquals(item.getDescription(), items.get(0).getDescription());
+        assertEquals(List.of(item.getId()), itemIds);
+    }
+
+    @Test
+    void shouldSearchOnlyAvailableItemsAfterCursor() {
+        Item unavailable = itemRepository.save(Item.builder()
+                .name("Item3")
+                .description("Item3 Descr")
+                .available(false)
+                .owner(owner)
+                .build());
+
+        assertEquals(List.of(item.getId(), item2.getId()), itemRepository.findItemIdsByText("descr", 0L, pageable));
+        assertEquals(List.of(item2.getId()), itemRepository.findItemIdsByText("descr", item.getId(), pageable));
+        assertEquals(List.of(), itemRepository.findItemIdsByText("descr", unavailable.getId(), pageable));
     }
 }
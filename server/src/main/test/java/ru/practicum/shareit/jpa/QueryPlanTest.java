@@ -0,0 +1,165 @@
+package ru.practicum.shareit.jpa;
+
+import lombok.SneakyThrows;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.TimeCursor;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.jpa.QueryPlanTest$RecordingStatementInspector")
+public class QueryPlanTest {
+    private static final Pattern FULL_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    private LocalDateTime now;
+    private TimeCursor first;
+    private Pageable pageable;
+
+    @BeforeEach
+    void init() {
+        RecordingStatementInspector.STATEMENTS.clear();
+        now = LocalDateTime.now();
+        first = TimeCursor.first();
+        pageable = PageRequest.of(0, 10);
+    }
+
+    @Test
+    void bookingRepositoryQueries_shouldNotScanTables() {
+        bookingRepository.readAllBookerCurrentBookings(1L, now, first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllBookerPastBookings(1L, now, first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllBookerFutureBookings(1L, now, first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllBookerBookingsByStatus(1L, BookingStatus.WAITING,
+                first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllBookerBookings(1L, first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllOwnerCurrentBookings(1L, now, first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllOwnerPastBookings(1L, now, first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllOwnerFutureBookings(1L, now, first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllOwnerBookingsByStatus(1L, BookingStatus.WAITING,
+                first.getTime(), first.getId(), pageable);
+        bookingRepository.readAllOwnerBookings(1L, first.getTime(), first.getId(), pageable);
+        bookingRepository.existsOverlapping(1L, List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                now, now.plusHours(1));
+        bookingRepository.findAllByItem_IdAndBooker_IdAndStatus(1L, 1L, BookingStatus.APPROVED);
+        bookingRepository.findLastBookings(1L, BookingStatus.APPROVED, now, PageRequest.of(0, 1));
+        bookingRepository.findNextBookings(1L, BookingStatus.APPROVED, now, PageRequest.of(0, 1));
+        bookingRepository.findBookingTimesForItems(List.of(1L, 2L), BookingStatus.APPROVED, now);
+        bookingRepository.findBookingsForItemsStartingAt(List.of(1L, 2L), BookingStatus.APPROVED, List.of(now));
+        bookingRepository.findItemIdsBookedBy(1L);
+
+        assertNoFullScans();
+    }
+
+    // findItemIdsByText здесь не проверяется: H2 показывает для него диапазон первичного ключа по i.id > ?,
+    // но LIKE '%текст%' индекс не использует и на первой странице читает всю таблицу items.
+    @Test
+    void itemRepositoryQueries_shouldNotScanTables() {
+        itemRepository.findAllByOwnerId(1L, pageable);
+        itemRepository.findAllForRequests(List.of(1L, 2L));
+        itemRepository.readItemsAfter(0L, pageable);
+        itemRepository.findIdsDeletedWithUser(1L);
+        itemRepository.lockById(1L);
+
+        assertNoFullScans();
+    }
+
+    @Test
+    void commentRepositoryQueries_shouldNotScanTables() {
+        commentRepository.countByItemId(1L);
+        commentRepository.countByItemIdIn(List.of(1L, 2L));
+        commentRepository.readItemComments(1L, first.getTime(), first.getId(), pageable);
+        commentRepository.findLatestIds(List.of(1L, 2L), 10);
+        commentRepository.findAllByIdIn(List.of(1L, 2L));
+        commentRepository.findItemIdsCommentedBy(1L);
+
+        assertNoFullScans();
+    }
+
+    @Test
+    void itemRequestRepositoryQueries_shouldNotScanTables() {
+        itemRequestRepository.findAllByRequestorId(1L);
+        itemRequestRepository.findAllByRequestorIdNot(1L, PageRequest.of(0, 10, Sort.by("created").descending()));
+
+        assertNoFullScans();
+    }
+
+    @SneakyThrows
+    private void assertNoFullScans() {
+        Set<String> statements = new LinkedHashSet<>(RecordingStatementInspector.STATEMENTS);
+        assertFalse(statements.isEmpty());
+
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : statements) {
+                if (!sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    continue;
+                }
+                String plan = explain(connection, sql);
+                Matcher matcher = FULL_SCAN.matcher(plan);
+                while (matcher.find()) {
+                    failures.add(matcher.group(1) + ": " + plan);
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), "Запросы без индекса:\n" + String.join("\n", failures));
+    }
+
+    @SneakyThrows
+    private String explain(Connection connection, String sql) {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                statement.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
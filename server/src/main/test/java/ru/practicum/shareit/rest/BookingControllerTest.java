@@ -13,6 +13,7 @@ import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -176,8 +177,8 @@ public class BookingControllerTest {
     @SneakyThrows
     void getAllBookerBookings_Status200() {
         Mockito.when(bookingService
-                .getAllBookerBookings(Mockito.anyLong(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt()))
-                .thenReturn(List.of(bookingDtoOutput));
+                .getAllBookerBookings(Mockito.anyLong(), Mockito.anyString(), Mockito.isNull(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoOutput), null));
 
         mockMvc.perform(get("/bookings")
                         .header(USER_ID, 1L))
@@ -185,15 +186,15 @@ public class BookingControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(bookingDtoOutput))));
 
         Mockito.verify(bookingService)
-                .getAllBookerBookings(Mockito.anyLong(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
+                .getAllBookerBookings(Mockito.anyLong(), Mockito.anyString(), Mockito.isNull(), Mockito.anyInt(), Mockito.anyInt());
     }
 
     @Test
     @SneakyThrows
     void getAllOwnerItemBookings_Status200() {
         Mockito.when(bookingService
-                        .getAllOwnerItemBookings(Mockito.anyLong(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt()))
-                .thenReturn(List.of(bookingDtoOutput));
+                        .getAllOwnerItemBookings(Mockito.anyLong(), Mockito.anyString(), Mockito.isNull(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoOutput), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .header(USER_ID, 1L))
@@ -201,6 +202,6 @@ public class BookingControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(bookingDtoOutput))));
 
         Mockito.verify(bookingService)
-                .getAllOwnerItemBookings(Mockito.anyLong(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
+                .getAllOwnerItemBookings(Mockito.anyLong(), Mockito.anyString(), Mockito.isNull(), Mockito.anyInt(), Mockito.anyInt());
     }
 }
@@ -13,6 +13,7 @@ import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +21,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.constant.CustomHeaders.NEXT_CURSOR;
 import static ru.practicum.shareit.constant.CustomHeaders.USER_ID;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -149,17 +151,39 @@ public class ItemControllerTest {
     @Test
     @SneakyThrows
     void getItemByText_Status200() {
-        Mockito.when(itemService.getItemByText(1L, "descr", 0, 10))
-                .thenReturn(List.of(itemDto));
+        Mockito.when(itemService.getItemByText(1L, "descr", null, 0, 10))
+                .thenReturn(new CursorPage<>(List.of(itemDto), "next"));
 
         mockMvc.perform(get("/items/search")
                         .header(USER_ID, 1L)
                         .param("text", "descr"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR, "next"))
                 .andExpect(content().json(objectMapper
                         .writeValueAsString(List.of(itemDto))));
 
-        Mockito.verify(itemService).getItemByText(1L, "descr", 0, 10);
+        Mockito.verify(itemService).getItemByText(1L, "descr", null, 0, 10);
+    }
+
+    @Test
+    @SneakyThrows
+    void getComments_Status200() {
+        commentDto = CommentDto.builder()
+                .id(1L)
+                .text("commentText")
+                .authorName("User")
+                .build();
+        Mockito.when(itemService.getComments(1L, 1L, null, 0, 10))
+                .thenReturn(new CursorPage<>(List.of(commentDto), "next"));
+
+        mockMvc.perform(get("/items/{itemId}/comments", 1L)
+                        .header(USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR, "next"))
+                .andExpect(content().json(objectMapper
+                        .writeValueAsString(List.of(commentDto))));
+
+        Mockito.verify(itemService).getComments(1L, 1L, null, 0, 10);
     }
 
     @Test
@@ -7,7 +7,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
@@ -17,10 +16,13 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.directory.UserDirectory;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -42,6 +44,10 @@ public class BookingServiceUnitTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private ItemViewCache itemViewCache;
 
     private BookingMapper bookingMapper;
 
@@ -57,13 +63,13 @@ public class BookingServiceUnitTest {
     private Item item;
     private Item item2;
     private Item item3;
-    private Pageable pageable;
 
     @BeforeEach
     void init() {
         bookingMapper = new BookingMapper(new ItemMapper(), new UserMapper());
 
         ReflectionTestUtils.setField(bookingService, "bookingMapper", bookingMapper);
+        ReflectionTestUtils.setField(bookingService, "userDirectory", new UserDirectory(userRepository));
 
         bookingDtoInput = BookingDtoInput.builder()
                 .bookingId(1L)
@@ -123,8 +129,6 @@ public class BookingServiceUnitTest {
         booking1 = bookingMapper.createBookingFromDto(previousBooking, item, user2, BookingStatus.WAITING);
         booking2 = bookingMapper.createBookingFromDto(futureBooking, item, user2, BookingStatus.APPROVED);
         updatedBooking = bookingMapper.createBookingFromDto(bookingDtoInput, item, user2, BookingStatus.APPROVED);
-
-        pageable = PageRequest.of(0, 10);
     }
 
     @Test
@@ -190,6 +194,24 @@ public class BookingServiceUnitTest {
         assertEquals("вещь недоступна", itemAvailabilityException.getMessage());
     }
 
+    @Test
+    void create_shouldThrowBookingOverlapException_WhenItemAlreadyBooked() {
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        Mockito.when(bookingRepository.existsOverlapping(1L,
+                        List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                        bookingDtoInput.getStart(),
+                        bookingDtoInput.getEnd()))
+                .thenReturn(true);
+
+        BookingOverlapException bookingOverlapException = assertThrows(BookingOverlapException.class,
+                () -> bookingService.create(2L, bookingDtoInput));
+
+        Mockito.verify(itemRepository).lockById(1L);
+        Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any());
+        assertEquals("Вещь с id=1 уже забронирована на это время.", bookingOverlapException.getMessage());
+    }
+
     @Test
     void updateStatus_shouldThrowDataNotFoundException_WhenUserNotExist() {
         Mockito.when(userRepository.findById(999L)).thenReturn(Optional.empty());
@@ -243,6 +265,7 @@ public class BookingServiceUnitTest {
         BookingDtoOutput returnedBooking = bookingService.updateStatus(1L, 1L, true);
 
         Mockito.verify(bookingRepository).save(Mockito.any());
+        Mockito.verify(itemBookingSummaryService).update(updatedBooking);
 
         assertEquals(BookingStatus.APPROVED, returnedBooking.getStatus());
         assertEquals(booking.getId(), returnedBooking.getId());
@@ -298,7 +321,7 @@ public class BookingServiceUnitTest {
         Mockito.when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
         DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
-                () -> bookingService.getAllBookerBookings(999L, "ALL", 0, 10));
+                () -> bookingService.getAllBookerBookings(999L, "ALL", null, 0, 10));
 
         assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
     }
@@ -308,7 +331,7 @@ public class BookingServiceUnitTest {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         WrongStateException wrongStateException = assertThrows(WrongStateException.class,
-                () -> bookingService.getAllBookerBookings(1L, " ", 0, 10));
+                () -> bookingService.getAllBookerBookings(1L, " ", null, 0, 10));
 
         assertEquals("Unknown state: UNSUPPORTED_STATUS", wrongStateException.getMessage());
     }
@@ -316,10 +339,13 @@ public class BookingServiceUnitTest {
     @Test
     void getAllBookerBookings_WhenStateALL() {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        Mockito.when(bookingRepository.findAllByBooker_IdOrderByStartTimeDesc(2L, pageable))
+        Mockito.when(bookingRepository.readAllBookerBookings(Mockito.eq(2L),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
+                        Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "ALL", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "ALL", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -332,10 +358,12 @@ public class BookingServiceUnitTest {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
         Mockito.when(bookingRepository.readAllBookerCurrentBookings(Mockito.anyLong(),
                         Mockito.any(LocalDateTime.class),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "CURRENT", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "CURRENT", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -348,10 +376,12 @@ public class BookingServiceUnitTest {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
         Mockito.when(bookingRepository.readAllBookerPastBookings(Mockito.anyLong(),
                         Mockito.any(LocalDateTime.class),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "PAST", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "PAST", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -364,10 +394,12 @@ public class BookingServiceUnitTest {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
         Mockito.when(bookingRepository.readAllBookerFutureBookings(Mockito.anyLong(),
                         Mockito.any(LocalDateTime.class),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "FUTURE", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "FUTURE", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -378,12 +410,14 @@ public class BookingServiceUnitTest {
     @Test
     void getAllBookerBookings_WhenStateWAITING_or_REJECTED() {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        Mockito.when(bookingRepository.findAllByBooker_IdAndStatusOrderByStartTimeDesc(Mockito.anyLong(),
+        Mockito.when(bookingRepository.readAllBookerBookingsByStatus(Mockito.anyLong(),
                         Mockito.any(BookingStatus.class),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "WAITING", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllBookerBookings(2L, "WAITING", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -396,7 +430,7 @@ public class BookingServiceUnitTest {
         Mockito.when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
         DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
-                () -> bookingService.getAllOwnerItemBookings(999L, "ALL", 0, 10));
+                () -> bookingService.getAllOwnerItemBookings(999L, "ALL", null, 0, 10));
 
         assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
     }
@@ -404,10 +438,9 @@ public class BookingServiceUnitTest {
     @Test
     void getAllOwnerItemBookings_shouldThrowWrongStateException_WhenWrongState() {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findAllByOwnerId(1L)).thenReturn(List.of(item, item2, item3));
 
         WrongStateException wrongStateException = assertThrows(WrongStateException.class,
-                () -> bookingService.getAllOwnerItemBookings(1L, " ", 0, 10));
+                () -> bookingService.getAllOwnerItemBookings(1L, " ", null, 0, 10));
 
         assertEquals("Unknown state: UNSUPPORTED_STATUS", wrongStateException.getMessage());
     }
@@ -415,11 +448,13 @@ public class BookingServiceUnitTest {
     @Test
     void getAllOwnerItemBookings_WhenStateALL() {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        Mockito.when(itemRepository.findAllByOwnerId(2L)).thenReturn(List.of(item, item2, item3));
-        Mockito.when(bookingRepository.findAllByItem_IdInOrderByStartTimeDesc(List.of(1L, 2L, 3L), pageable))
+        Mockito.when(bookingRepository.readAllOwnerBookings(Mockito.eq(2L),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
+                        Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "ALL", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "ALL", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -430,13 +465,14 @@ public class BookingServiceUnitTest {
     @Test
     void getAllOwnerItemBookings_WhenStateCURRENT() {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        Mockito.when(itemRepository.findAllByOwnerId(2L)).thenReturn(List.of(item, item2, item3));
-        Mockito.when(bookingRepository.readAllOwnerItemsCurrentBookings(Mockito.anyList(),
+        Mockito.when(bookingRepository.readAllOwnerCurrentBookings(Mockito.eq(2L),
+                        Mockito.any(LocalDateTime.class),
                         Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "CURRENT", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "CURRENT", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -447,13 +483,14 @@ public class BookingServiceUnitTest {
     @Test
     void getAllOwnerItemBookings_WhenStatePAST() {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        Mockito.when(itemRepository.findAllByOwnerId(2L)).thenReturn(List.of(item, item2, item3));
-        Mockito.when(bookingRepository.readAllOwnerItemsPastBookings(Mockito.anyList(),
+        Mockito.when(bookingRepository.readAllOwnerPastBookings(Mockito.eq(2L),
+                        Mockito.any(LocalDateTime.class),
                         Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "PAST", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "PAST", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -464,13 +501,14 @@ public class BookingServiceUnitTest {
     @Test
     void getAllOwnerItemBookings_WhenStateFUTURE() {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        Mockito.when(itemRepository.findAllByOwnerId(2L)).thenReturn(List.of(item, item2, item3));
-        Mockito.when(bookingRepository.readAllOwnerItemsFutureBookings(Mockito.anyList(),
+        Mockito.when(bookingRepository.readAllOwnerFutureBookings(Mockito.eq(2L),
                         Mockito.any(LocalDateTime.class),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "FUTURE", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "FUTURE", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
@@ -481,12 +519,14 @@ public class BookingServiceUnitTest {
     @Test
     void getAllOwnerItemBookings_WhenStateWAITING_or_REJECTED() {
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        Mockito.when(itemRepository.findAllByOwnerId(2L)).thenReturn(List.of(item, item2, item3));
-        Mockito.when(bookingRepository.findAllByItem_IdInAndStatusInOrderByStartTimeDesc(List.of(1L, 2L, 3L),
-                        List.of(BookingStatus.WAITING), pageable))
+        Mockito.when(bookingRepository.readAllOwnerBookingsByStatus(Mockito.eq(2L),
+                        Mockito.eq(BookingStatus.WAITING),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.anyLong(),
+                        Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking, booking1, booking2));
 
-        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "WAITING", 0, 10);
+        List<BookingDtoOutput> returnedBookings = bookingService.getAllOwnerItemBookings(2L, "WAITING", null, 0, 10).getItems();
 
         assertEquals(3, returnedBookings.size());
         assertEquals(booking.getId(), returnedBookings.get(0).getId());
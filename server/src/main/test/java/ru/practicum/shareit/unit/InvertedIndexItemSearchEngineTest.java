@@ -0,0 +1,177 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemShort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(MockitoExtension.class)
+public class InvertedIndexItemSearchEngineTest {
+    @InjectMocks
+    private InvertedIndexItemSearchEngine searchEngine;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void init() {
+        Mockito.when(itemRepository.readItemsAfter(0L, PageRequest.of(0, 10_000)))
+                .thenReturn(List.of(
+                        toItemShort(1L, "Дрель", "Простая дрель"),
+                        toItemShort(2L, "Отвертка", "Аккумуляторная отвертка"),
+                        toItemShort(3L, "Перфоратор", "Мощнее, чем дрель"),
+                        toItemShort(4L, "Клей", "Клей Момент")));
+        searchEngine.load();
+    }
+
+    @Test
+    void search_shouldFindSubstringIgnoringCase() {
+        assertEquals(List.of(2L), searchEngine.search("аккУМУЛ", null, 0, 10).getItems());
+        assertEquals(List.of(4L), searchEngine.search("ей", null, 0, 10).getItems());
+        assertEquals(List.of(4L), searchEngine.search("Й", null, 0, 10).getItems());
+        assertEquals(List.of(), searchEngine.search("пила", null, 0, 10).getItems());
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirst() {
+        assertEquals(List.of(1L, 3L), searchEngine.search("дрель", null, 0, 10).getItems());
+    }
+
+    @Test
+    void search_shouldReturnRequestedPage() {
+        assertEquals(List.of(3L), searchEngine.search("дрель", null, 1, 1).getItems());
+        assertEquals(List.of(), searchEngine.search("дрель", null, 2, 2).getItems());
+    }
+
+    @Test
+    void search_shouldContinueFromCursor() {
+        CursorPage<Long> firstPage = searchEngine.search("дрель", null, 0, 1);
+        CursorPage<Long> secondPage = searchEngine.search("дрель", firstPage.getNext(), 0, 1);
+        CursorPage<Long> thirdPage = searchEngine.search("дрель", secondPage.getNext(), 0, 1);
+
+        assertEquals(List.of(1L), firstPage.getItems());
+        assertEquals(List.of(3L), secondPage.getItems());
+        assertEquals(List.of(), thirdPage.getItems());
+        assertNull(thirdPage.getNext());
+    }
+
+    @Test
+    void search_shouldSkipUnavailableItems() {
+        searchEngine.index(stored(3L, "Перфоратор", "Мощнее, чем дрель", false));
+
+        assertEquals(List.of(1L), searchEngine.search("дрель", null, 0, 10).getItems());
+    }
+
+    @Test
+    void index_shouldReplacePreviousVersionOfItem() {
+        searchEngine.index(stored(1L, "Шуруповерт", "Аккумуляторный шуруповерт", true));
+
+        assertEquals(List.of(3L), searchEngine.search("дрель", null, 0, 10).getItems());
+        assertEquals(List.of(1L, 2L), searchEngine.search("аккумулятор", null, 0, 10).getItems());
+    }
+
+    @Test
+    void remove_shouldDropItemAndReuseItsSlot() {
+        deleted(1L);
+        searchEngine.remove(1L);
+        searchEngine.index(stored(5L, "Дрель ударная", "С кейсом", true));
+
+        assertEquals(List.of(5L, 3L), searchEngine.search("дрель", null, 0, 10).getItems());
+        assertEquals(List.of(), searchEngine.search("простая", null, 0, 10).getItems());
+    }
+
+    @Test
+    void index_shouldApplyChangesOnlyAfterCommit() {
+        List<TransactionSynchronization> hooks = inTransaction(() -> {
+            searchEngine.index(stored(5L, "Пила", "Ножовка", true));
+            deleted(1L);
+            searchEngine.remove(1L);
+        });
+
+        assertEquals(List.of(), searchEngine.search("пила", null, 0, 10).getItems());
+        assertEquals(List.of(1L, 3L), searchEngine.search("дрель", null, 0, 10).getItems());
+
+        hooks.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(List.of(5L), searchEngine.search("пила", null, 0, 10).getItems());
+        assertEquals(List.of(3L), searchEngine.search("дрель", null, 0, 10).getItems());
+    }
+
+    @Test
+    void index_shouldKeepLastCommittedVersion_WhenHooksRunOutOfOrder() {
+        Item first = Item.builder().id(1L).name("Пила").description("Ножовка").available(true).build();
+        List<TransactionSynchronization> firstHooks = inTransaction(() -> searchEngine.index(first));
+        List<TransactionSynchronization> secondHooks = inTransaction(
+                () -> searchEngine.index(stored(1L, "Лобзик", "Электрический", true)));
+
+        secondHooks.forEach(TransactionSynchronization::afterCommit);
+        firstHooks.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(List.of(1L), searchEngine.search("лобзик", null, 0, 10).getItems());
+        assertEquals(List.of(), searchEngine.search("пила", null, 0, 10).getItems());
+    }
+
+    private List<TransactionSynchronization> inTransaction(Runnable changes) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changes.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Строка в базе после коммита: индекс перечитывает её, а не берёт переданную вещь.
+    private Item stored(Long id, String name, String description, boolean available) {
+        Mockito.when(itemRepository.readItem(id)).thenReturn(Optional.of(toItemShort(id, name, description, available)));
+        return Item.builder().id(id).name(name).description(description).available(available).build();
+    }
+
+    private void deleted(Long id) {
+        Mockito.when(itemRepository.readItem(id)).thenReturn(Optional.empty());
+    }
+
+    private ItemShort toItemShort(Long id, String name, String description) {
+        return toItemShort(id, name, description, true);
+    }
+
+    private ItemShort toItemShort(Long id, String name, String description, boolean available) {
+        return new ItemShort() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return available;
+            }
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.dto.BookingTimes;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryCalculator;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryRefresher;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemBookingSummaryServiceTest {
+    @InjectMocks
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemBookingSummaryRefresher itemBookingSummaryRefresher;
+
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(itemBookingSummaryService, "itemBookingSummaryCalculator",
+                new ItemBookingSummaryCalculator(summaryRepository, bookingRepository));
+        item = Item.builder().id(1L).build();
+        booker = User.builder().id(2L).build();
+    }
+
+    @Test
+    void get_shouldReturnStoredSummary_WhenNextBookingNotStarted() {
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(1L)
+                .nextBookingId(5L)
+                .nextBookerId(2L)
+                .nextStartTime(LocalDateTime.now().plusHours(1))
+                .build();
+        Mockito.when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+
+        assertEquals(summary, itemBookingSummaryService.get(1L));
+
+        Mockito.verifyNoInteractions(bookingRepository, itemBookingSummaryRefresher);
+    }
+
+    @Test
+    void get_shouldRecalculateWithoutWriting_WhenNextBookingStarted() {
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(1L)
+                .nextBookingId(5L)
+                .nextBookerId(2L)
+                .nextStartTime(LocalDateTime.now().minusMinutes(1))
+                .build();
+        Mockito.when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+        Mockito.when(bookingRepository.findBookingTimesForItems(Mockito.eq(List.of(1L)),
+                        Mockito.eq(BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.of(toBookingTimes(1L, summary.getNextStartTime(), null)));
+        Mockito.when(bookingRepository.findBookingsForItemsStartingAt(Set.of(1L), BookingStatus.APPROVED,
+                        Set.of(summary.getNextStartTime())))
+                .thenReturn(List.of(toBookingShort(5L, summary.getNextStartTime())));
+
+        ItemBookingSummary recalculated = itemBookingSummaryService.get(1L);
+
+        Mockito.verify(summaryRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(itemBookingSummaryRefresher).refreshLater(List.of(1L));
+        assertEquals(5L, recalculated.getLastBookingId());
+        assertEquals(2L, recalculated.getLastBookerId());
+        assertNull(recalculated.getNextBookingId());
+        assertNull(recalculated.getNextStartTime());
+    }
+
+    @Test
+    void get_shouldRecalculateAllStaleItemsWithTwoQueries() {
+        LocalDateTime started = LocalDateTime.now().minusMinutes(1);
+        List<ItemBookingSummary> stored = List.of(
+                ItemBookingSummary.builder().itemId(1L).nextBookingId(5L).nextStartTime(started).build(),
+                ItemBookingSummary.builder().itemId(2L).nextBookingId(6L).nextStartTime(started).build(),
+                ItemBookingSummary.builder().itemId(3L).build());
+        Mockito.when(summaryRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(stored);
+        Mockito.when(bookingRepository.findBookingTimesForItems(Mockito.eq(List.of(1L, 2L)),
+                        Mockito.eq(BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.of(toBookingTimes(1L, started, null)));
+        Mockito.when(bookingRepository.findBookingsForItemsStartingAt(Set.of(1L), BookingStatus.APPROVED,
+                        Set.of(started)))
+                .thenReturn(List.of(toBookingShort(6L, started), toBookingShort(5L, started)));
+
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.get(List.of(1L, 2L, 3L));
+
+        Mockito.verify(bookingRepository).findBookingTimesForItems(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(bookingRepository).findBookingsForItemsStartingAt(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verifyNoMoreInteractions(bookingRepository);
+        Mockito.verify(itemBookingSummaryRefresher).refreshLater(List.of(1L, 2L));
+        assertEquals(5L, summaries.get(1L).getLastBookingId());
+        assertNull(summaries.get(2L).getLastBookingId());
+        assertEquals(stored.get(2), summaries.get(3L));
+    }
+
+    @Test
+    void removeBooker_shouldRecalculateOnlySummariesReferencingBooker() {
+        LocalDateTime past = LocalDateTime.now().minusDays(1);
+        ItemBookingSummary referencing = ItemBookingSummary.builder()
+                .itemId(1L).lastBookingId(5L).lastBookerId(2L).lastStartTime(past).build();
+        ItemBookingSummary other = ItemBookingSummary.builder()
+                .itemId(3L).lastBookingId(6L).lastBookerId(4L).lastStartTime(past).build();
+        Mockito.when(summaryRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(referencing, other));
+        Mockito.when(bookingRepository.findBookingTimesForItems(Mockito.eq(List.of(1L)),
+                        Mockito.eq(BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.of());
+
+        itemBookingSummaryService.removeBooker(2L, List.of(1L, 3L));
+
+        ArgumentCaptor<Collection<ItemBookingSummary>> saved = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(summaryRepository).saveAll(saved.capture());
+        ItemBookingSummary recalculated = saved.getValue().iterator().next();
+        assertEquals(1, saved.getValue().size());
+        assertEquals(1L, recalculated.getItemId());
+        assertNull(recalculated.getLastBookingId());
+    }
+
+    @Test
+    void update_shouldReplaceNextBooking_WhenApprovedBookingStartsEarlier() {
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(1L)
+                .nextBookingId(5L)
+                .nextBookerId(2L)
+                .nextStartTime(LocalDateTime.now().plusDays(2))
+                .build();
+        Mockito.when(summaryRepository.findById(1L)).thenReturn(Optional.of(summary));
+
+        itemBookingSummaryService.update(toBooking(6L, LocalDateTime.now().plusDays(1), BookingStatus.APPROVED));
+        itemBookingSummaryService.update(toBooking(7L, LocalDateTime.now().plusDays(3), BookingStatus.APPROVED));
+
+        Mockito.verify(summaryRepository).save(summary);
+        assertEquals(6L, summary.getNextBookingId());
+    }
+
+    @Test
+    void update_shouldIgnoreNotApprovedBookings() {
+        itemBookingSummaryService.update(toBooking(6L, LocalDateTime.now().plusDays(1), BookingStatus.REJECTED));
+
+        Mockito.verifyNoInteractions(summaryRepository, bookingRepository);
+    }
+
+    private Booking toBooking(Long id, LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(booker)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(status)
+                .build();
+    }
+
+    private BookingTimes toBookingTimes(Long itemId, LocalDateTime lastStart, LocalDateTime nextStart) {
+        return new BookingTimes() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getLastStartTime() {
+                return lastStart;
+            }
+
+            @Override
+            public LocalDateTime getNextStartTime() {
+                return nextStart;
+            }
+        };
+    }
+
+    private BookingShort toBookingShort(Long id, LocalDateTime start) {
+        return new BookingShort() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return 2L;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+        };
+    }
+}
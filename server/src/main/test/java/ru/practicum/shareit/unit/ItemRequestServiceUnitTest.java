@@ -12,8 +12,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.exception.DataNotFoundException;
-import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoForRequestor;
@@ -21,6 +20,7 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+import ru.practicum.shareit.user.directory.UserDirectory;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -42,12 +42,11 @@ public class ItemRequestServiceUnitTest {
     private ItemRepository itemRepository;
 
     private ItemRequestMapper itemRequestMapper;
-    private ItemMapper itemMapper;
 
     private User user;
     private User user2;
-    private Item item;
-    private List<Item> items;
+    private ItemDtoForRequest item;
+    private ItemDtoForRequest item2;
     private ItemRequestDto itemRequestDto;
     private ItemRequestDto itemRequest2Dto;
     private ItemRequest itemRequest;
@@ -56,11 +55,10 @@ public class ItemRequestServiceUnitTest {
 
     @BeforeEach
     void init() {
-        itemMapper = new ItemMapper();
         itemRequestMapper = new ItemRequestMapper();
 
-        ReflectionTestUtils.setField(itemRequestService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemRequestService, "itemRequestMapper", itemRequestMapper);
+        ReflectionTestUtils.setField(itemRequestService, "userDirectory", new UserDirectory(userRepository));
 
         user = User.builder()
                 .id(1L)
@@ -87,14 +85,19 @@ public class ItemRequestServiceUnitTest {
         itemRequest = itemRequestMapper.createRequestFromDto(itemRequestDto, user);
         itemRequest2 = itemRequestMapper.createRequestFromDto(itemRequest2Dto, user2);
 
-        item = Item.builder()
+        item = ItemDtoForRequest.builder()
                 .id(1L)
                 .description("ItemDescription")
                 .available(true)
-                .request(itemRequest)
+                .requestId(1L)
                 .build();
 
-        items = List.of(item);
+        item2 = ItemDtoForRequest.builder()
+                .id(2L)
+                .description("SecondItemDescription")
+                .available(true)
+                .requestId(2L)
+                .build();
 
         pageable = PageRequest.of(0, 10, Sort.by("created").descending());
     }
@@ -136,7 +139,7 @@ public class ItemRequestServiceUnitTest {
     @Test
     void getRequests_shouldGetRequests() {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findAllByRequestId(1L)).thenReturn(items);
+        Mockito.when(itemRepository.findAllForRequests(List.of(1L))).thenReturn(List.of(item));
         Mockito.when(itemRequestRepository.findAllByRequestorId(1L)).thenReturn(List.of(itemRequest));
 
         List<ItemRequestDtoForRequestor> returnedRequests = itemRequestService.getRequests(1L);
@@ -175,7 +178,7 @@ public class ItemRequestServiceUnitTest {
     void getRequestById_shouldGetRequestById() {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         Mockito.when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(itemRequest));
-        Mockito.when(itemRepository.findAllByRequestId(1L)).thenReturn(items);
+        Mockito.when(itemRepository.findAllForRequests(List.of(1L))).thenReturn(List.of(item));
 
         ItemRequestDtoForRequestor returnedRequest = itemRequestService.getRequestById(1L, 1L);
 
@@ -187,6 +190,33 @@ public class ItemRequestServiceUnitTest {
         assertEquals(item.getId(), returnedRequest.getItems().get(0).getId());
     }
 
+    @Test
+    void getRequests_shouldFetchItemsForAllRequestsAtOnce() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(itemRequestRepository.findAllByRequestorId(1L)).thenReturn(List.of(itemRequest, itemRequest2));
+        Mockito.when(itemRepository.findAllForRequests(List.of(1L, 2L))).thenReturn(List.of(item, item2));
+
+        List<ItemRequestDtoForRequestor> returnedRequests = itemRequestService.getRequests(1L);
+
+        Mockito.verify(itemRepository).findAllForRequests(List.of(1L, 2L));
+        Mockito.verifyNoMoreInteractions(itemRepository);
+
+        assertEquals(2, returnedRequests.size());
+        assertEquals(List.of(item), returnedRequests.get(0).getItems());
+        assertEquals(List.of(item2), returnedRequests.get(1).getItems());
+    }
+
+    @Test
+    void getRequests_shouldReturnEmptyItems_WhenNoItemsForRequest() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(itemRequestRepository.findAllByRequestorId(1L)).thenReturn(List.of(itemRequest));
+        Mockito.when(itemRepository.findAllForRequests(List.of(1L))).thenReturn(List.of());
+
+        List<ItemRequestDtoForRequestor> returnedRequests = itemRequestService.getRequests(1L);
+
+        assertEquals(0, returnedRequests.get(0).getItems().size());
+    }
+
     @Test
     void getRequestsByPage_shouldThrowDataNotFoundException_WhenUserNotExist() {
         Mockito.when(userRepository.findById(999L)).thenReturn(Optional.empty());
@@ -201,7 +231,7 @@ public class ItemRequestServiceUnitTest {
     void getRequestsByPage_shouldGetRequestsByPage() {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         Mockito.when(itemRequestRepository.findAllByRequestorIdNot(1L, pageable)).thenReturn(List.of(itemRequest2));
-        Mockito.when(itemRepository.findAllByRequestId(2L)).thenReturn(items);
+        Mockito.when(itemRepository.findAllForRequests(List.of(2L))).thenReturn(List.of(item2));
 
         List<ItemRequestDtoForRequestor> returnedRequests = itemRequestService.getRequestsByPage(1L, 0, 10);
 
@@ -211,6 +241,6 @@ public class ItemRequestServiceUnitTest {
         assertEquals(itemRequest2.getId(), returnedRequests.get(0).getId());
         assertEquals(itemRequest2.getDescription(), returnedRequests.get(0).getDescription());
         assertEquals(1, returnedRequests.get(0).getItems().size());
-        assertEquals(item.getId(), returnedRequests.get(0).getItems().get(0).getId());
+        assertEquals(item2.getId(), returnedRequests.get(0).getItems().get(0).getId());
     }
 }
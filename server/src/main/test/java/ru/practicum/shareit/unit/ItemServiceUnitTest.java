@@ -1,5 +1,6 @@
 package ru.practicum.shareit.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,10 +14,13 @@ import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ItemAvailabilityException;
 import ru.practicum.shareit.exception.WrongAccesException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -24,16 +28,21 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.directory.UserDirectory;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,6 +61,10 @@ public class ItemServiceUnitTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
 
     private ItemMapper itemMapper;
     private CommentMapper commentMapper;
@@ -73,7 +86,6 @@ public class ItemServiceUnitTest {
     private Booking lastBooking;
     private Booking nextBooking;
     private Pageable pageable;
-    private List<Booking> bookings;
     private List<Item> items;
 
     @BeforeEach
@@ -86,6 +98,9 @@ public class ItemServiceUnitTest {
         ReflectionTestUtils.setField(itemService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemService, "commentMapper", commentMapper);
         ReflectionTestUtils.setField(itemService, "bookingMapper", bookingMapper);
+        ReflectionTestUtils.setField(itemService, "userDirectory", new UserDirectory(userRepository));
+        ReflectionTestUtils.setField(itemService, "itemViewCache",
+                new ItemViewCache(100, Duration.ofMinutes(5), "", new SimpleMeterRegistry()));
 
         userDto = UserDto.builder()
                 .id(1L)
@@ -151,8 +166,6 @@ public class ItemServiceUnitTest {
                 .status(BookingStatus.APPROVED)
                 .build();
 
-        bookings = List.of(lastBooking, nextBooking);
-
         pageable = PageRequest.of(0, 10);
 
         items = List.of(item, item2);
@@ -233,8 +246,9 @@ public class ItemServiceUnitTest {
         item.setOwner(user);
 
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllByItemId(1L)).thenReturn(bookings);
-        Mockito.when(commentRepository.findAllByItemId(1L)).thenReturn(List.of());
+        Mockito.when(itemBookingSummaryService.get(1L)).thenReturn(toSummary(1L, lastBooking, nextBooking));
+        Mockito.when(commentRepository.readItemComments(Mockito.eq(1L), Mockito.any(), Mockito.anyLong(),
+                Mockito.eq(PageRequest.of(0, 10)))).thenReturn(List.of());
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         ItemDto returnedItem = itemService.getItemById(1L, 1L);
@@ -255,7 +269,9 @@ public class ItemServiceUnitTest {
         item.setOwner(user2);
 
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(commentRepository.findAllByItemId(1L)).thenReturn(List.of());
+        Mockito.when(itemBookingSummaryService.get(1L)).thenReturn(toSummary(1L, lastBooking, nextBooking));
+        Mockito.when(commentRepository.readItemComments(Mockito.eq(1L), Mockito.any(), Mockito.anyLong(),
+                Mockito.eq(PageRequest.of(0, 10)))).thenReturn(List.of());
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         ItemDto returnedItem = itemService.getItemById(1L, 1L);
@@ -265,8 +281,8 @@ public class ItemServiceUnitTest {
         assertEquals(itemDto.getId(), returnedItem.getId());
         assertEquals(itemDto.getName(), returnedItem.getName());
         assertEquals(itemDto.getAvailable(), returnedItem.getAvailable());
-        assertNull(itemDto.getLastBooking());
-        assertNull(itemDto.getNextBooking());
+        assertNull(returnedItem.getLastBooking());
+        assertNull(returnedItem.getNextBooking());
     }
 
     @Test
@@ -285,8 +301,9 @@ public class ItemServiceUnitTest {
         item2.setOwner(user2);
 
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllByItemId(1L)).thenReturn(bookings);
-        Mockito.when(commentRepository.findAllByItemId(1L)).thenReturn(List.of());
+        Mockito.when(itemBookingSummaryService.get(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, toSummary(1L, lastBooking, nextBooking)));
+        Mockito.when(commentRepository.findLatestIds(List.of(1L, 2L), 10)).thenReturn(List.of());
         Mockito.when(itemRepository.findAllByOwnerId(1L, pageable)).thenReturn(items);
 
         List<ItemDto> returnedItems = itemService.getItems(1L, 0, 10);
@@ -308,6 +325,8 @@ public class ItemServiceUnitTest {
         assertEquals(items.get(1).getName(), returnedItems.get(1).getName());
         assertEquals(items.get(1).getDescription(), returnedItems.get(1).getDescription());
         assertEquals(items.get(1).getAvailable(), returnedItems.get(1).getAvailable());
+        assertNull(returnedItems.get(1).getLastBooking());
+        assertNull(returnedItems.get(1).getNextBooking());
     }
 
     @Test
@@ -355,8 +374,9 @@ public class ItemServiceUnitTest {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         Mockito.when(itemRepository.save(Mockito.any())).thenReturn(itemMapper.updateItemFromDto(item, itemDtoToupdate));
-        Mockito.when(bookingRepository.findAllByItemId(1L)).thenReturn(bookings);
-        Mockito.when(commentRepository.findAllByItemId(1L)).thenReturn(List.of());
+        Mockito.when(itemBookingSummaryService.get(1L)).thenReturn(toSummary(1L, lastBooking, nextBooking));
+        Mockito.when(commentRepository.readItemComments(Mockito.eq(1L), Mockito.any(), Mockito.anyLong(),
+                Mockito.eq(PageRequest.of(0, 10)))).thenReturn(List.of());
 
         ItemDto updatedItem = itemService.update(1L, 1L, itemDtoToupdate);
 
@@ -372,11 +392,14 @@ public class ItemServiceUnitTest {
     @Test
     void getItemByText_shouldGetItem() {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findItemByText("descr", pageable)).thenReturn(items);
+        Mockito.when(itemSearchEngine.search("descr", null, 0, 10))
+                .thenReturn(new CursorPage<>(List.of(1L, 2L), null));
+        Mockito.when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(item2, item));
+        Mockito.when(commentRepository.findLatestIds(List.of(1L, 2L), 10)).thenReturn(List.of());
 
-        List<ItemDto> returnedItems = itemService.getItemByText(1L, "descr", 0, 10);
+        List<ItemDto> returnedItems = itemService.getItemByText(1L, "descr", null, 0, 10).getItems();
 
-        Mockito.verify(itemRepository).findItemByText("descr", pageable);
+        Mockito.verify(itemSearchEngine).search("descr", null, 0, 10);
 
         assertEquals(2, returnedItems.size());
         assertEquals(items.get(0).getId(), returnedItems.get(0).getId());
@@ -390,7 +413,7 @@ public class ItemServiceUnitTest {
         Mockito.when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
         DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
-                () -> itemService.getItemByText(999L, "descr", 0, 10));
+                () -> itemService.getItemByText(999L, "descr", null, 0, 10));
 
         assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
     }
@@ -399,7 +422,7 @@ public class ItemServiceUnitTest {
     void getItemByText_shouldGetEmptyList_WhenTextIsBlank() {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
-        List<ItemDto> returnedItems = itemService.getItemByText(1L, " ", 0, 10);
+        List<ItemDto> returnedItems = itemService.getItemByText(1L, " ", null, 0, 10).getItems();
 
         assertEquals(0, returnedItems.size());
     }
@@ -456,4 +479,16 @@ public class ItemServiceUnitTest {
 
         assertEquals("Вещи с id=999 нет.", dataNotFoundException.getMessage());
     }
+
+    private ItemBookingSummary toSummary(Long itemId, Booking last, Booking next) {
+        return ItemBookingSummary.builder()
+                .itemId(itemId)
+                .lastBookingId(last.getId())
+                .lastBookerId(last.getBooker().getId())
+                .lastStartTime(last.getStartTime())
+                .nextBookingId(next.getId())
+                .nextBookerId(next.getBooker().getId())
+                .nextStartTime(next.getStartTime())
+                .build();
+    }
 }
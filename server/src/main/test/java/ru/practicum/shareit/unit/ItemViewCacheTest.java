@@ -0,0 +1,111 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.cache.ItemView;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ItemViewCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ItemViewCache itemViewCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemViewCache = new ItemViewCache(100, Duration.ofMinutes(5), "", meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldLoadOnceAndCountHitsAndMisses() {
+        itemViewCache.get(1L, id -> load(id, null));
+        itemViewCache.get(1L, id -> load(id, null));
+        itemViewCache.get(1L, id -> load(id, null));
+
+        assertEquals(1, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void get_shouldReloadAfterInvalidate() {
+        itemViewCache.get(1L, id -> load(id, null));
+        itemViewCache.invalidate(1L);
+        itemViewCache.get(1L, id -> load(id, null));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldReload_WhenNextBookingHasStarted() {
+        itemViewCache.get(1L, id -> load(id, LocalDateTime.now().minusSeconds(1)));
+        itemViewCache.get(1L, id -> load(id, LocalDateTime.now().plusHours(1)));
+        itemViewCache.get(1L, id -> load(id, LocalDateTime.now().plusHours(1)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldWaitForCommit() {
+        itemViewCache.get(1L, id -> load(id, null));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemViewCache.invalidate(1L);
+            itemViewCache.get(1L, id -> load(id, null));
+            assertEquals(1, loads.get());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        itemViewCache.get(1L, id -> load(id, null));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldNotFillFromReplica() {
+        ItemViewCache replicaCache = new ItemViewCache(100, Duration.ofMinutes(5), "jdbc:h2:mem:replica",
+                meterRegistry);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            replicaCache.get(1L, id -> load(id, null));
+            replicaCache.get(1L, id -> load(id, null));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        assertEquals(2, loads.get());
+
+        replicaCache.get(1L, id -> load(id, null));
+        replicaCache.get(1L, id -> load(id, null));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_shouldReturnCopyOfCachedItem() {
+        ItemDto first = itemViewCache.get(1L, id -> load(id, null)).getItem();
+        first.setName("изменено");
+
+        assertNull(itemViewCache.get(1L, id -> load(id, null)).getItem().getName());
+    }
+
+    private ItemView load(Long id, LocalDateTime staleAt) {
+        loads.incrementAndGet();
+        return new ItemView(1L, ItemDto.builder().id(id).build(), staleAt);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.WrongStateException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.metrics.ServiceMetricsAspect;
+import ru.practicum.shareit.user.directory.UserDirectory;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class ServiceMetricsAspectTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserDirectory userDirectory;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingMapper bookingMapper;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private ItemViewCache itemViewCache;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private CommentRepository commentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserService userService;
+    private BookingService bookingService;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        userService = proxy(new UserServiceImpl(userRepository, new UserMapper(), userDirectory,
+                itemRepository, itemSearchEngine, bookingRepository, commentRepository, itemViewCache,
+                itemBookingSummaryService));
+        bookingService = proxy(new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                bookingMapper, itemBookingSummaryService, itemViewCache, userDirectory));
+    }
+
+    @Test
+    void serviceCall_shouldBeTimedWithSuccessOutcome() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder()
+                .id(1L)
+                .name("User")
+                .email("user@email.com")
+                .build()));
+
+        userService.getUsersById(1L);
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("service", "UserServiceImpl")
+                .tag("method", "getUsersById")
+                .tag("outcome", "SUCCESS")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void failedServiceCall_shouldBeTimedWithErrorOutcome() {
+        Mockito.when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(DataNotFoundException.class, () -> userService.getUsersById(999L));
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getUsersById")
+                .tag("outcome", "ERROR")
+                .tag("exception", "DataNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void bookingListCall_shouldBeTaggedWithState() {
+        bookingService.getAllBookerBookings(1L, "waiting", null, 0, 10);
+        assertThrows(WrongStateException.class,
+                () -> bookingService.getAllBookerBookings(1L, "whatever", null, 0, 10));
+
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getAllBookerBookings")
+                .tag("state", "WAITING")
+                .timer()
+                .count());
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getAllBookerBookings")
+                .tag("state", "UNSUPPORTED")
+                .tag("outcome", "ERROR")
+                .timer()
+                .count());
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        return factory.getProxy();
+    }
+}
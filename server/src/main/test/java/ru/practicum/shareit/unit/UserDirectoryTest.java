@@ -0,0 +1,130 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.user.directory.UserDirectory;
+import ru.practicum.shareit.user.dto.UserShort;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserDirectoryTest {
+    @InjectMocks
+    private UserDirectory userDirectory;
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void init() {
+        Mockito.when(userRepository.readUsersAfter(0L, PageRequest.of(0, 10_000)))
+                .thenReturn(List.of(toUserShort(1L, "first@email.com"), toUserShort(2L, "second@email.com")));
+        userDirectory.load();
+    }
+
+    @Test
+    void exists_shouldAnswerFromMemory_WhenUserLoaded() {
+        assertTrue(userDirectory.exists(1L));
+        assertTrue(userDirectory.exists(2L));
+
+        Mockito.verify(userRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    void requireExists_shouldCheckDatabase_WhenUserUnknown() {
+        Mockito.when(userRepository.findById(3L))
+                .thenReturn(Optional.of(User.builder().id(3L).name("Third").email("third@email.com").build()));
+        Mockito.when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        userDirectory.requireExists(3L);
+        userDirectory.requireExists(3L);
+        DataNotFoundException dataNotFoundException = assertThrows(DataNotFoundException.class,
+                () -> userDirectory.requireExists(999L));
+
+        Mockito.verify(userRepository).findById(3L);
+        assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
+    }
+
+    @Test
+    void isEmailTaken_shouldIgnoreOwnerAndRemovedUsers() {
+        User first = User.builder().id(1L).name("First").email("first@email.com").build();
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(first));
+
+        assertTrue(userDirectory.isEmailTaken("first@email.com", null));
+        assertFalse(userDirectory.isEmailTaken("first@email.com", 1L));
+        assertFalse(userDirectory.isEmailTaken("third@email.com", null));
+
+        userDirectory.remove(first);
+
+        assertFalse(userDirectory.isEmailTaken("first@email.com", null));
+    }
+
+    @Test
+    void changes_shouldApplyOnlyAfterCommit() {
+        User first = User.builder().id(1L).name("First").email("first@email.com").build();
+        User third = User.builder().id(3L).name("Third").email("third@email.com").build();
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(first));
+        Mockito.when(userRepository.findById(3L)).thenReturn(Optional.of(third));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userDirectory.add(third);
+            userDirectory.update("second@email.com",
+                    User.builder().id(2L).name("Second").email("new@email.com").build());
+            userDirectory.remove(first);
+
+            assertFalse(userDirectory.isEmailTaken("third@email.com", null));
+            assertFalse(userDirectory.isEmailTaken("new@email.com", null));
+            assertTrue(userDirectory.exists(1L));
+            assertTrue(userDirectory.isEmailTaken("first@email.com", null));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(userDirectory.isEmailTaken("third@email.com", null));
+        assertFalse(userDirectory.isEmailTaken("first@email.com", null));
+        assertFalse(userDirectory.exists(1L));
+    }
+
+    @Test
+    void remove_shouldKeepUser_WhenTransactionRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userDirectory.remove(User.builder().id(1L).name("First").email("first@email.com").build());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(userDirectory.exists(1L));
+        Mockito.verify(userRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    private UserShort toUserShort(Long id, String email) {
+        return new UserShort() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
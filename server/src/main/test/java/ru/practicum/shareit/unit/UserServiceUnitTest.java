@@ -3,12 +3,21 @@ package ru.practicum.shareit.unit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.DuplicateEmailException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.directory.UserDirectory;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -27,6 +36,20 @@ public class UserServiceUnitTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserDirectory userDirectory;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemViewCache itemViewCache;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
 
     private UserMapper userMapper;
 
@@ -53,6 +76,7 @@ public class UserServiceUnitTest {
         UserDto createdUser = userService.create(userDto);
 
         Mockito.verify(userRepository).save(Mockito.any());
+        Mockito.verify(userDirectory).add(user);
 
         assertEquals(userDto.getId(), createdUser.getId());
         assertEquals(userDto.getName(), createdUser.getName());
@@ -137,4 +161,60 @@ public class UserServiceUnitTest {
 
         assertEquals("Пользователь с id=999 не найден.", dataNotFoundException.getMessage());
     }
+
+    @Test
+    void shouldRemoveCascadedItemsFromSearch_WhenUserDeleted() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findIdsDeletedWithUser(1L)).thenReturn(List.of(10L, 11L));
+
+        userService.delete(1L);
+
+        Mockito.verify(userRepository).deleteById(1L);
+        Mockito.verify(itemSearchEngine).remove(10L);
+        Mockito.verify(itemSearchEngine).remove(11L);
+    }
+
+    @Test
+    void shouldInvalidateViewsOfBookedAndCommentedItems_WhenUserDeleted() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findIdsDeletedWithUser(1L)).thenReturn(List.of(10L));
+        Mockito.when(bookingRepository.findItemIdsBookedBy(1L)).thenReturn(List.of(20L, 21L));
+        Mockito.when(commentRepository.findItemIdsCommentedBy(1L)).thenReturn(List.of(21L, 22L));
+
+        userService.delete(1L);
+
+        Mockito.verify(itemViewCache).invalidate(10L);
+        Mockito.verify(itemViewCache).invalidate(20L);
+        Mockito.verify(itemViewCache).invalidate(21L);
+        Mockito.verify(itemViewCache).invalidate(22L);
+        Mockito.verify(itemSearchEngine, Mockito.never()).remove(20L);
+    }
+
+    @Test
+    void shouldRecalculateSummariesOfBookedItemsAfterCascade_WhenUserDeleted() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findIdsDeletedWithUser(1L)).thenReturn(List.of(10L));
+        Mockito.when(bookingRepository.findItemIdsBookedBy(1L)).thenReturn(List.of(21L, 10L, 20L));
+
+        userService.delete(1L);
+
+        InOrder inOrder = Mockito.inOrder(itemRepository, userRepository, itemBookingSummaryService);
+        inOrder.verify(itemRepository).lockById(20L);
+        inOrder.verify(itemRepository).lockById(21L);
+        inOrder.verify(userRepository).deleteById(1L);
+        inOrder.verify(userRepository).flush();
+        inOrder.verify(itemBookingSummaryService).removeBooker(1L, List.of(20L, 21L));
+        Mockito.verify(itemRepository, Mockito.never()).lockById(10L);
+    }
+
+    @Test
+    void shouldThrowDuplicateEmailException_WhenEmailTaken() {
+        Mockito.when(userDirectory.isEmailTaken("user@email.com", null)).thenReturn(true);
+
+        DuplicateEmailException duplicateEmailException = assertThrows(DuplicateEmailException.class,
+                () -> userService.create(userDto));
+
+        Mockito.verify(userRepository, Mockito.never()).save(Mockito.any());
+        assertEquals("Пользователь с email=user@email.com уже существует.", duplicateEmailException.getMessage());
+    }
 }